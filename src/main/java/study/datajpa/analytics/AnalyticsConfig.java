@@ -0,0 +1,15 @@
+package study.datajpa.analytics;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(name = "datajpa.analytics.enabled", havingValue = "true")
+public class AnalyticsConfig {
+
+    @Bean
+    public MemberColumnStore memberColumnStore() {
+        return new MemberColumnStore();
+    }
+}
@@ -0,0 +1,114 @@
+package study.datajpa.analytics;
+
+import java.util.Arrays;
+
+/**
+ * long -> int 전용 오픈 어드레싱(선형 탐사) 해시 맵. MemberColumnStore의 id -> 행 번호 인덱스용.
+ * HashMap<Long, Integer>는 엔트리 + 박싱된 Long/Integer 때문에 행마다 60바이트 이상 -> 여기서는 슬롯당 12바이트.
+ * 값은 0 이상만 저장 (없으면 -1 반환). 스레드 안전하지 않음 -> MemberColumnStore의 락 안에서만 사용.
+ */
+final class LongIntHashMap {
+
+    static final int MISSING = -1;
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    // 저장된 값 + 1. 0이면 빈 슬롯
+    private int[] values;
+    private int mask;
+    private int size;
+
+    LongIntHashMap() {
+        allocate(MIN_CAPACITY);
+    }
+
+    int size() {
+        return size;
+    }
+
+    int get(long key) {
+        for (int slot = slot(key); values[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return values[slot] - 1;
+            }
+        }
+        return MISSING;
+    }
+
+    void put(long key, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("value must not be negative: " + value);
+        }
+        // 부하율 0.5를 넘기 전에 키움 -> 탐사 길이를 짧게 유지
+        if ((size + 1) * 2 > values.length) {
+            resize(values.length * 2);
+        }
+        int slot = slot(key);
+        while (values[slot] != 0) {
+            if (keys[slot] == key) {
+                values[slot] = value + 1;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value + 1;
+        size++;
+    }
+
+    int remove(long key) {
+        int slot = slot(key);
+        while (values[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (values[slot] == 0) {
+            return MISSING;
+        }
+        int removed = values[slot] - 1;
+        // 툼스톤 대신 뒤따르는 엔트리를 당겨서 탐사 체인이 끊기지 않게 함 (backward shift)
+        int gap = slot;
+        for (int next = (gap + 1) & mask; values[next] != 0; next = (next + 1) & mask) {
+            int home = slot(keys[next]);
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+        }
+        values[gap] = 0;
+        size--;
+        return removed;
+    }
+
+    void clear() {
+        Arrays.fill(values, 0);
+        size = 0;
+    }
+
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != 0) {
+                int slot = slot(oldKeys[i]);
+                while (values[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+}
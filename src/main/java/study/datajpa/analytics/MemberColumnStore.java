@@ -0,0 +1,308 @@
+package study.datajpa.analytics;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Member를 컬럼 단위 primitive 배열로 들고 있는 인메모리 읽기 모델 (분석 쿼리 전용).
+ * - ids / ages / teamIds: 행 번호(row)가 같은 인덱스
+ * - username은 사전(dictionary) 인코딩: 문자열은 한 번만 저장하고 행에는 int 코드만 둠
+ * 엔티티를 만들지 않고 배열을 순차로 훑기 때문에 캐시 친화적이고, 구간을 나눠서 코어별로 병렬 스캔.
+ *
+ * 행 삭제는 마지막 행을 빈자리로 옮기는 방식 -> 행 순서는 보장하지 않음.
+ */
+public class MemberColumnStore {
+
+    public static final long NO_TEAM = Long.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 1024;
+    // 병렬 스캔 시 한 작업이 맡을 최소 행 수 (너무 잘게 쪼개면 오히려 느림)
+    private static final int MIN_ROWS_PER_TASK = 64 * 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int[] ages = new int[INITIAL_CAPACITY];
+    private long[] teamIds = new long[INITIAL_CAPACITY];
+    private int[] usernameCodes = new int[INITIAL_CAPACITY];
+    private int size;
+
+    // id -> 행 번호. 박싱 없는 primitive 맵 (행마다 HashMap 엔트리를 만들지 않음)
+    private LongIntHashMap rowById = new LongIntHashMap();
+    private Map<String, Integer> dictionary = new HashMap<>();
+    private String[] usernames = new String[INITIAL_CAPACITY];
+
+    public void upsert(long id, String username, int age, Long teamId) {
+        lock.writeLock().lock();
+        try {
+            int row = rowById.get(id);
+            if (row == LongIntHashMap.MISSING) {
+                ensureCapacity(size + 1);
+                row = size++;
+                rowById.put(id, row);
+                ids[row] = id;
+            }
+            ages[row] = age;
+            teamIds[row] = teamId != null ? teamId : NO_TEAM;
+            usernameCodes[row] = encode(username);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void delete(long id) {
+        lock.writeLock().lock();
+        try {
+            int row = rowById.remove(id);
+            if (row == LongIntHashMap.MISSING) {
+                return;
+            }
+            int last = --size;
+            if (row != last) {
+                ids[row] = ids[last];
+                ages[row] = ages[last];
+                teamIds[row] = teamIds[last];
+                usernameCodes[row] = usernameCodes[last];
+                rowById.put(ids[row], row);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // "update Member m set m.age = m.age + 1 where m.age >= :age" 와 같은 변경을 메모리에도 그대로 적용
+    public void applyAgePlus(int minAge) {
+        lock.writeLock().lock();
+        try {
+            for (int row = 0; row < size; row++) {
+                if (ages[row] >= minAge) {
+                    ages[row]++;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 따로 만들어 둔 스토어의 내용으로 한 번에 교체 -> 읽는 쪽은 교체 전/후 중 하나만 봄 (비어 있는 중간 상태 X)
+    // fresh는 아직 아무도 안 쓰는 인스턴스여야 하고, 교체 후에는 버려야 함
+    public void replaceWith(MemberColumnStore fresh) {
+        lock.writeLock().lock();
+        try {
+            ids = fresh.ids;
+            ages = fresh.ages;
+            teamIds = fresh.teamIds;
+            usernameCodes = fresh.usernameCodes;
+            size = fresh.size;
+            rowById = fresh.rowById;
+            dictionary = fresh.dictionary;
+            usernames = fresh.usernames;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int distinctUsernames() {
+        lock.readLock().lock();
+        try {
+            return dictionary.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public String usernameOf(long id) {
+        lock.readLock().lock();
+        try {
+            int row = rowById.get(id);
+            if (row == LongIntHashMap.MISSING || usernameCodes[row] < 0) {
+                return null;
+            }
+            return usernames[usernameCodes[row]];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // fromInclusive <= age < toExclusive 인 회원 수
+    public long countByAgeRange(int fromInclusive, int toExclusive) {
+        lock.readLock().lock();
+        try {
+            return scan(size).mapToLong(range -> {
+                long count = 0;
+                for (int row = range[0]; row < range[1]; row++) {
+                    int age = ages[row];
+                    if (age >= fromInclusive && age < toExclusive) {
+                        count++;
+                    }
+                }
+                return count;
+            }).sum();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // bucketWidth 단위 나이 히스토그램. index i = [i * width, (i + 1) * width)
+    public long[] ageHistogram(int bucketWidth) {
+        if (bucketWidth <= 0) {
+            throw new IllegalArgumentException("bucketWidth must be positive: " + bucketWidth);
+        }
+        lock.readLock().lock();
+        try {
+            int buckets = maxAge() / bucketWidth + 1;
+            return scan(size).map(range -> {
+                long[] local = new long[buckets];
+                for (int row = range[0]; row < range[1]; row++) {
+                    local[Math.max(0, ages[row]) / bucketWidth]++;
+                }
+                return local;
+            }).reduce(new long[buckets], MemberColumnStore::add);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 팀별 회원 수 (팀 없는 회원은 NO_TEAM 키)
+    public Map<Long, Long> countByTeam() {
+        lock.readLock().lock();
+        try {
+            return scan(size).map(range -> {
+                Map<Long, Long> local = new HashMap<>();
+                for (int row = range[0]; row < range[1]; row++) {
+                    local.merge(teamIds[row], 1L, Long::sum);
+                }
+                return local;
+            }).reduce(new HashMap<>(), (a, b) -> {
+                Map<Long, Long> merged = new HashMap<>(a);
+                b.forEach((team, count) -> merged.merge(team, count, Long::sum));
+                return merged;
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 팀별 나이 백분위 (percentile: 0 ~ 100). 나이는 범위가 좁으므로 팀별 카운팅 배열로 계산
+    public Map<Long, Integer> agePercentileByTeam(double percentile) {
+        lock.readLock().lock();
+        try {
+            int maxAge = maxAge();
+            Map<Long, long[]> histograms = scan(size).map(range -> {
+                Map<Long, long[]> local = new HashMap<>();
+                for (int row = range[0]; row < range[1]; row++) {
+                    local.computeIfAbsent(teamIds[row], team -> new long[maxAge + 1])[Math.max(0, ages[row])]++;
+                }
+                return local;
+            }).reduce(new HashMap<>(), (a, b) -> {
+                Map<Long, long[]> merged = new HashMap<>(a);
+                b.forEach((team, counts) -> merged.merge(team, counts, MemberColumnStore::add));
+                return merged;
+            });
+
+            Map<Long, Integer> result = new HashMap<>();
+            histograms.forEach((team, counts) -> result.put(team, percentile(counts, percentile)));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 사전에서 username 코드를 찾아 int 비교만으로 셈
+    public long countByUsername(String username) {
+        lock.readLock().lock();
+        try {
+            Integer code = dictionary.get(username);
+            if (code == null) {
+                return 0;
+            }
+            return scan(size).mapToLong(range -> {
+                long count = 0;
+                for (int row = range[0]; row < range[1]; row++) {
+                    if (usernameCodes[row] == code) {
+                        count++;
+                    }
+                }
+                return count;
+            }).sum();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int maxAge() {
+        int max = 0;
+        for (int row = 0; row < size; row++) {
+            max = Math.max(max, ages[row]);
+        }
+        return max;
+    }
+
+    private static int percentile(long[] counts, double percentile) {
+        long total = Arrays.stream(counts).sum();
+        long rank = (long) Math.ceil(percentile / 100.0 * total);
+        long seen = 0;
+        for (int age = 0; age < counts.length; age++) {
+            seen += counts[age];
+            if (seen >= Math.max(1, rank)) {
+                return age;
+            }
+        }
+        return counts.length - 1;
+    }
+
+    private static long[] add(long[] a, long[] b) {
+        long[] sum = Arrays.copyOf(a, a.length);
+        for (int i = 0; i < b.length; i++) {
+            sum[i] += b[i];
+        }
+        return sum;
+    }
+
+    // [from, to) 행 구간으로 나눠서 병렬 스트림으로 반환
+    private static Stream<int[]> scan(int rows) {
+        int tasks = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), rows / MIN_ROWS_PER_TASK));
+        int chunk = (rows + tasks - 1) / tasks;
+        return IntStream.range(0, tasks)
+                .mapToObj(task -> new int[]{task * chunk, Math.min(rows, (task + 1) * chunk)})
+                .parallel();
+    }
+
+    private int encode(String username) {
+        if (username == null) {
+            return -1;
+        }
+        return dictionary.computeIfAbsent(username, name -> {
+            int code = dictionary.size();
+            if (code == usernames.length) {
+                usernames = Arrays.copyOf(usernames, code * 2);
+            }
+            usernames[code] = name;
+            return code;
+        });
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, ids.length * 2);
+        ids = Arrays.copyOf(ids, newCapacity);
+        ages = Arrays.copyOf(ages, newCapacity);
+        teamIds = Arrays.copyOf(teamIds, newCapacity);
+        usernameCodes = Arrays.copyOf(usernameCodes, newCapacity);
+    }
+}
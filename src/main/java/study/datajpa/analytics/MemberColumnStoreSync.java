@@ -0,0 +1,214 @@
+package study.datajpa.analytics;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.datajpa.entity.Member;
+import study.datajpa.invalidation.CacheInvalidationListener;
+import study.datajpa.invalidation.ChangeEvent;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * MemberColumnStore를 DB와 맞춰주는 역할.
+ * - 기동 시: member 테이블을 JDBC로 한 번 훑어서 새 스토어를 만들고 교체 (엔티티 생성 X)
+ * - 엔티티 insert/update/delete: 커밋이 끝난 뒤 Hibernate 이벤트로 반영 (롤백된 변경은 안 들어감)
+ * - 벌크 연산(bulkAgePlus): 엔티티 이벤트가 안 생기므로 AOP로 잡아서 커밋 후 같은 연산을 메모리에 적용
+ * - 다른 인스턴스의 변경: 변경 피드로 id를 받아서 그 행만 다시 읽음 (region 전체 변경이면 전부 다시 적재)
+ */
+@Slf4j
+@Aspect
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "datajpa.analytics.enabled", havingValue = "true")
+public class MemberColumnStoreSync implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener, CacheInvalidationListener {
+
+    private final MemberColumnStore store;
+    private final EntityManagerFactory emf;
+    private final JdbcTemplate jdbcTemplate;
+
+    // 라이브 스토어 변경과 reload 중 변경 기록/교체를 묶는 락
+    private final Object changeLock = new Object();
+    // reload 스캔 중에 바뀐 회원 id (reload 중이 아니면 null)
+    private Set<Long> changedDuringReload;
+    private boolean bulkDuringReload;
+
+    @PostConstruct
+    public void registerListeners() {
+        EventListenerRegistry registry = emf.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    /**
+     * 새 스토어를 옆에서 만들어서 한 번에 교체. 읽는 쪽은 적재 중에도 이전 데이터를 그대로 봄.
+     * 스캔 중에 들어온 변경은 라이브 스토어에 반영하면서 id를 기록해 두고, 교체 직전에 그 행만 DB에서 다시 읽어서
+     * 새 스토어에 덮어씀 (스캔이 읽은 오래된 값이 최신 변경을 덮어쓰지 않게).
+     * 벌크 연산은 id를 모르므로 스캔 중에 있었으면 처음부터 다시 적재.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reload() {
+        long start = System.currentTimeMillis();
+        MemberColumnStore fresh;
+        boolean swapped;
+        do {
+            synchronized (changeLock) {
+                changedDuringReload = new HashSet<>();
+                bulkDuringReload = false;
+            }
+            MemberColumnStore building = new MemberColumnStore();
+            jdbcTemplate.query("select member_id, username, age, team_id from member", rs -> {
+                building.upsert(rs.getLong("member_id"), rs.getString("username"), rs.getInt("age"),
+                        rs.getObject("team_id", Long.class));
+            });
+            fresh = building;
+            synchronized (changeLock) {
+                swapped = !bulkDuringReload;
+                if (swapped) {
+                    changedDuringReload.forEach(id -> refreshRow(building, id));
+                    store.replaceWith(building);
+                    changedDuringReload = null;
+                }
+            }
+        } while (!swapped);
+        log.info("member column store loaded rows={} usernames={} elapsed={}ms",
+                fresh.size(), fresh.distinctUsernames(), System.currentTimeMillis() - start);
+    }
+
+    @AfterReturning("execution(* study.datajpa.repository.MemberRepository.bulkAgePlus(..)) && args(age)")
+    public void afterBulkAgePlus(int age) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applyAgePlus(age);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                applyAgePlus(age);
+            }
+        });
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Member member) {
+            upsert(member);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Member member) {
+            upsert(member);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Member) {
+            Long id = (Long) event.getId();
+            synchronized (changeLock) {
+                store.delete(id);
+                recordChange(id);
+            }
+        }
+    }
+
+    @Override
+    public void onRemoteChange(ChangeEvent event) {
+        if (!ChangeEvent.MEMBER.equals(event.region())) {
+            return;
+        }
+        if (event.isRegionWide()) {
+            reload();
+            return;
+        }
+        synchronized (changeLock) {
+            refreshRow(store, event.entityId());
+            recordChange(event.entityId());
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister.getMappedClass() == Member.class;
+    }
+
+    private void upsert(Member member) {
+        // team은 지연 로딩 대상 -> 초기화하지 않고 식별자만 꺼냄
+        Long teamId = member.getTeam() != null
+                ? (Long) emf.getPersistenceUnitUtil().getIdentifier(member.getTeam())
+                : null;
+        synchronized (changeLock) {
+            store.upsert(member.getId(), member.getUsername(), member.getAge(), teamId);
+            recordChange(member.getId());
+        }
+    }
+
+    private void applyAgePlus(int age) {
+        synchronized (changeLock) {
+            store.applyAgePlus(age);
+            if (changedDuringReload != null) {
+                bulkDuringReload = true;
+            }
+        }
+    }
+
+    // changeLock 안에서만 호출
+    private void recordChange(Long id) {
+        if (changedDuringReload != null) {
+            changedDuringReload.add(id);
+        }
+    }
+
+    // DB의 현재 행으로 덮어쓰고, 없으면 삭제
+    private void refreshRow(MemberColumnStore target, Long id) {
+        List<Boolean> found = jdbcTemplate.query("select member_id, username, age, team_id from member where member_id = ?",
+                (rs, rowNum) -> {
+                    target.upsert(rs.getLong("member_id"), rs.getString("username"), rs.getInt("age"),
+                            rs.getObject("team_id", Long.class));
+                    return true;
+                }, id);
+        if (found.isEmpty()) {
+            target.delete(id);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package study.datajpa.archive;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter @Setter
+@ConfigurationProperties(prefix = "datajpa.archive")
+public class ArchiveProperties {
+
+    private boolean enabled = false;
+    // 마지막 수정 후 이 기간이 지나면 콜드 테이블로 옮김
+    private Duration inactiveAfter = Duration.ofDays(365);
+    private int batchSize = 1_000;
+    private String cron = "0 0 3 * * *";
+}
@@ -0,0 +1,49 @@
+package study.datajpa.archive;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.MergeContext;
+import org.hibernate.event.spi.MergeEvent;
+import org.hibernate.event.spi.MergeEventListener;
+import org.springframework.stereotype.Component;
+import study.datajpa.entity.Member;
+
+/**
+ * 아카이브에서 복원한 Member 사본은 id만 있는 비영속 객체라 save(merge)하면 DB에 없는 id로 보고
+ * 새 id로 insert 해버림 (회원이 두 명이 됨). merge 전에 막음.
+ * 되살리려면 아카이브에서 member로 다시 옮겨야 함.
+ */
+@Component
+@RequiredArgsConstructor
+public class ArchivedMemberGuard implements MergeEventListener {
+
+    private final EntityManagerFactory emf;
+
+    @PostConstruct
+    public void register() {
+        emf.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class)
+                .prependListeners(EventType.MERGE, this);
+    }
+
+    @Override
+    public void onMerge(MergeEvent event) {
+        check(event.getOriginal());
+    }
+
+    @Override
+    public void onMerge(MergeEvent event, MergeContext copiedAlready) {
+        check(event.getOriginal());
+    }
+
+    private void check(Object entity) {
+        if (entity instanceof Member member && member.isArchived()) {
+            throw new IllegalStateException("archived member is read-only: id=" + member.getId());
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package study.datajpa.archive;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.invalidation.JdbcChangeNotifier;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 오래된 회원을 member(핫) -> member_archive(콜드)로 배치 단위로 옮김.
+ * 한 배치 = 한 트랜잭션 (insert ... select 후 delete) -> 락을 짧게 잡고, 중간에 죽어도 옮긴 만큼은 남음.
+ * 후보를 고른 뒤 다시 조건을 걸고 select ... for update로 행을 잠가서, 그 사이 갱신된 회원은 옮기지 않음.
+ * 벌크 SQL이라 영속성 컨텍스트를 거치지 않음 (수백만 건을 엔티티로 올리지 않기 위해).
+ * 대신 Hibernate 이벤트가 안 생기므로 옮긴 id를 JdbcChangeNotifier로 캐시들에 알림.
+ */
+@Slf4j
+@Component
+@EnableScheduling
+@EnableConfigurationProperties(ArchiveProperties.class)
+@ConditionalOnProperty(name = "datajpa.archive.enabled", havingValue = "true")
+public class MemberArchiver {
+
+    private static final String COLUMNS =
+            "member_id, username, age, team_id, created_date, last_modified_date, created_by, last_modified_by";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ArchiveProperties properties;
+    private final JdbcChangeNotifier changeNotifier;
+
+    public MemberArchiver(NamedParameterJdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                          ArchiveProperties properties, JdbcChangeNotifier changeNotifier) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.changeNotifier = changeNotifier;
+    }
+
+    @Scheduled(cron = "${datajpa.archive.cron:0 0 3 * * *}")
+    public void archiveScheduled() {
+        archive(LocalDateTime.now().minus(properties.getInactiveAfter()));
+    }
+
+    // 기준 시각 이전에 마지막으로 수정된 회원을 전부 옮기고 옮긴 건수를 반환
+    public long archive(LocalDateTime threshold) {
+        long total = 0;
+        Batch batch;
+        do {
+            batch = transactionTemplate.execute(status -> archiveBatch(threshold));
+            total += batch.archived();
+        } while (batch.candidates() == properties.getBatchSize());
+        log.info("archived {} members inactive since {}", total, threshold);
+        return total;
+    }
+
+    // Auditing이 insert 때도 last_modified_date를 채우므로 컬럼을 그대로 비교 (함수로 감싸면 인덱스를 못 씀)
+    private Batch archiveBatch(LocalDateTime threshold) {
+        MapSqlParameterSource params = new MapSqlParameterSource("threshold", Timestamp.valueOf(threshold))
+                .addValue("limit", properties.getBatchSize());
+        List<Long> candidates = jdbcTemplate.queryForList(
+                "select member_id from member where last_modified_date < :threshold" +
+                        " order by member_id limit :limit",
+                params, Long.class);
+        if (candidates.isEmpty()) {
+            return new Batch(0, 0);
+        }
+        // 후보를 고른 뒤 갱신된 회원(write-behind flush, 일반 save 등)은 빼고 행 락을 잡음
+        // -> 커밋 전까지 다른 트랜잭션이 바꾸지 못하므로 insert/delete가 같은 행을 봄
+        params.addValue("ids", candidates);
+        List<Long> ids = jdbcTemplate.queryForList(
+                "select member_id from member where member_id in (:ids) and last_modified_date < :threshold for update",
+                params, Long.class);
+        if (ids.isEmpty()) {
+            return new Batch(candidates.size(), 0);
+        }
+        params.addValue("ids", ids).addValue("now", Timestamp.valueOf(LocalDateTime.now()));
+        jdbcTemplate.update("insert into member_archive (" + COLUMNS + ", archived_date)" +
+                " select " + COLUMNS + ", :now from member" +
+                " where member_id in (:ids) and last_modified_date < :threshold", params);
+        int deleted = jdbcTemplate.update(
+                "delete from member where member_id in (:ids) and last_modified_date < :threshold", params);
+        if (deleted != ids.size()) {
+            // 락을 잡았으므로 일어나면 안 됨 -> 롤백해서 아카이브에만 있는 복사본이 남지 않게
+            throw new IllegalStateException("archived " + ids.size() + " members but deleted " + deleted);
+        }
+        changeNotifier.membersChanged(ids);
+        return new Batch(candidates.size(), ids.size());
+    }
+
+    private record Batch(int candidates, int archived) {
+    }
+}
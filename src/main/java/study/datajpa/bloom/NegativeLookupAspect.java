@@ -0,0 +1,77 @@
+package study.datajpa.bloom;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.datajpa.entity.Item;
+
+import java.util.Optional;
+
+// Bloom filter가 "확실히 없음"이라고 하면 쿼리 없이 빈 결과를 반환
+// 쓰기 트랜잭션 안에서는 건너뜀: 아직 flush 안 된 persist/변경은 필터에 안 들어가 있기 때문 (미탐 방지)
+@Aspect
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "datajpa.bloom.enabled", havingValue = "true")
+public class NegativeLookupAspect {
+
+    private final NegativeLookupCache cache;
+
+    @Around("this(study.datajpa.repository.MemberRepository) && execution(* findOptionalByUsername(String)) && args(username)")
+    public Object findOptionalByUsername(ProceedingJoinPoint joinPoint, String username) throws Throwable {
+        if (canSkip() && !cache.mightContainUsername(username)) {
+            return Optional.empty();
+        }
+        Optional<?> result = (Optional<?>) joinPoint.proceed();
+        cache.recordUsernameLookup(result.isPresent());
+        return result;
+    }
+
+    @Around("this(study.datajpa.repository.MemberRepository) && execution(* findMemberByUsername(String)) && args(username)")
+    public Object findMemberByUsername(ProceedingJoinPoint joinPoint, String username) throws Throwable {
+        if (canSkip() && !cache.mightContainUsername(username)) {
+            return null;
+        }
+        Object result = joinPoint.proceed();
+        cache.recordUsernameLookup(result != null);
+        return result;
+    }
+
+    @Around("this(study.datajpa.repository.ItemRepository) && execution(* findById(..)) && args(id)")
+    public Object findItemById(ProceedingJoinPoint joinPoint, Object id) throws Throwable {
+        if (id instanceof String itemId && canSkip() && !cache.mightContainItem(itemId)) {
+            return Optional.empty();
+        }
+        Optional<?> result = (Optional<?>) joinPoint.proceed();
+        cache.recordItemLookup(result.isPresent());
+        return result;
+    }
+
+    @Around("this(study.datajpa.repository.ItemRepository) && execution(boolean existsById(..)) && args(id)")
+    public Object existsItemById(ProceedingJoinPoint joinPoint, Object id) throws Throwable {
+        if (id instanceof String itemId && canSkip() && !cache.mightContainItem(itemId)) {
+            return false;
+        }
+        boolean result = (Boolean) joinPoint.proceed();
+        cache.recordItemLookup(result);
+        return result;
+    }
+
+    // merge로 저장된 경우에도 필터에 들어가도록 (persist는 insert 이벤트로 들어감)
+    @AfterReturning(pointcut = "this(study.datajpa.repository.ItemRepository) && execution(* save(..))", returning = "saved")
+    public void afterItemSave(Object saved) {
+        if (saved instanceof Item item && item.getId() != null) {
+            cache.addItem(item.getId());
+        }
+    }
+
+    private static boolean canSkip() {
+        return !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+}
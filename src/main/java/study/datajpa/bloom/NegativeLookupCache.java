@@ -0,0 +1,235 @@
+package study.datajpa.bloom;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import study.datajpa.entity.Item;
+import study.datajpa.entity.Member;
+import study.datajpa.invalidation.CacheInvalidationListener;
+import study.datajpa.invalidation.ChangeEvent;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Member.username / Item.id 존재 여부를 Bloom filter로 들고 있다가, "확실히 없는" 조회는 DB까지 안 가게 함.
+ * - 기동 시 테이블을 JDBC로 스트리밍해서 새로 만듦 (member + member_archive, item)
+ * - insert/update 이벤트(다른 인스턴스 것은 변경 피드)로 계속 추가. 롤백돼도 지우지 않음 -> 오탐(있을 수도)만 늘 뿐 미탐은 안 생김
+ * - 재구축 중에 들어온 추가는 기존/새 필터 양쪽에 넣어서 교체 순간에 빠지는 값이 없게 함
+ * - flush 시점에 넣은 값은 아직 커밋 전이라 재구축 스캔에 안 보일 수 있음 -> 커밋 후에 한 번 더 넣음
+ *   (커밋 후 put은 building을 못 봤다면 스캔보다 먼저 커밋된 것이므로 스캔에 포함됨)
+ * - 재구축이 끝나기 전(ready 아님)에는 항상 "있을 수도"로 답함
+ *
+ * 다른 인스턴스의 insert를 모르면 미탐(실제로 있는데 없다고 답함)이 생기므로 변경 피드(datajpa.invalidation.enabled)가
+ * 켜져 있어야만 켤 수 있음. 기본은 꺼짐.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "datajpa.bloom.enabled", havingValue = "true")
+public class NegativeLookupCache implements PostInsertEventListener, PostUpdateEventListener,
+        CacheInvalidationListener {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory emf;
+    private final MeterRegistry meterRegistry;
+    private final double falsePositiveRate;
+
+    private final Filter usernames = new Filter();
+    private final Filter itemIds = new Filter();
+
+    public NegativeLookupCache(JdbcTemplate jdbcTemplate, EntityManagerFactory emf, MeterRegistry meterRegistry,
+                               @Value("${datajpa.bloom.false-positive-rate:0.01}") double falsePositiveRate,
+                               @Value("${datajpa.invalidation.enabled:false}") boolean invalidationEnabled) {
+        if (!invalidationEnabled) {
+            throw new IllegalStateException(
+                    "datajpa.bloom.enabled requires datajpa.invalidation.enabled=true (remote inserts would be missed)");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.emf = emf;
+        this.meterRegistry = meterRegistry;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = emf.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        bindMetrics("username", usernames);
+        bindMetrics("item", itemIds);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        rebuild(usernames, "select count(*) from member", "select username from member",
+                "select username from member_archive");
+        rebuild(itemIds, "select count(*) from item", "select id from item");
+        log.info("bloom filters rebuilt usernames={} items={} memory={}B elapsed={}ms",
+                usernames.current.insertions(), itemIds.current.insertions(),
+                usernames.current.memoryBytes() + itemIds.current.memoryBytes(), System.currentTimeMillis() - start);
+    }
+
+    public boolean mightContainUsername(String username) {
+        return username == null || usernames.mightContain(username);
+    }
+
+    public boolean mightContainItem(String id) {
+        return id == null || itemIds.mightContain(id);
+    }
+
+    // 필터는 "있을 수도"라 했는데 DB에 없었던 경우 -> 실측 오탐
+    public void recordUsernameLookup(boolean found) {
+        usernames.record(found);
+    }
+
+    public void recordItemLookup(boolean found) {
+        itemIds.record(found);
+    }
+
+    public void addItem(String id) {
+        itemIds.put(id);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        onWrite(event.getSession(), event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        onWrite(event.getSession(), event.getEntity());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    // 다른 인스턴스에서 생긴 username을 모르면 "확실히 없음"으로 잘못 답하게 됨
+    @Override
+    public void onRemoteChange(ChangeEvent event) {
+        if (event.entityKey() == null) {
+            return;
+        }
+        if (ChangeEvent.MEMBER.equals(event.region())) {
+            usernames.put(event.entityKey());
+        } else if (ChangeEvent.ITEM.equals(event.region())) {
+            itemIds.put(event.entityKey());
+        }
+    }
+
+    private void onWrite(EventSource session, Object entity) {
+        Filter filter;
+        String value;
+        if (entity instanceof Member member && member.getUsername() != null) {
+            filter = usernames;
+            value = member.getUsername();
+        } else if (entity instanceof Item item && item.getId() != null) {
+            filter = itemIds;
+            value = item.getId();
+        } else {
+            return;
+        }
+        filter.put(value);
+        session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) (success, s) -> {
+            if (success) {
+                filter.put(value);
+            }
+        });
+    }
+
+    private void rebuild(Filter filter, String countSql, String... valueSqls) {
+        long rows = jdbcTemplate.queryForObject(countSql, Long.class);
+        // 앞으로 늘어날 것까지 감안해서 2배로 잡음
+        BloomFilter next = new BloomFilter(Math.max(10_000, rows * 2), falsePositiveRate);
+        filter.building = next;
+        for (String sql : valueSqls) {
+            jdbcTemplate.query(sql, rs -> {
+                String value = rs.getString(1);
+                if (value != null) {
+                    next.put(value);
+                }
+            });
+        }
+        filter.current = next;
+        filter.building = null;
+        filter.ready = true;
+    }
+
+    private void bindMetrics(String name, Filter filter) {
+        gauge("datajpa.bloom.memory.bytes", name, filter, f -> f.current.memoryBytes());
+        gauge("datajpa.bloom.insertions", name, filter, f -> f.current.insertions());
+        gauge("datajpa.bloom.expected.fpp", name, filter, f -> f.current.expectedFalsePositiveRate());
+        gauge("datajpa.bloom.observed.fpp", name, filter, Filter::observedFalsePositiveRate);
+        FunctionCounter.builder("datajpa.bloom.skipped", filter, f -> f.skipped.get())
+                .tag("filter", name)
+                .register(meterRegistry);
+    }
+
+    private void gauge(String metric, String name, Filter filter, ToDoubleFunction<Filter> value) {
+        Gauge.builder(metric, filter, value).tag("filter", name).register(meterRegistry);
+    }
+
+    private class Filter {
+        volatile BloomFilter current = new BloomFilter(1, falsePositiveRate);
+        volatile BloomFilter building;
+        volatile boolean ready;
+        final AtomicLong skipped = new AtomicLong();
+        final AtomicLong maybeHits = new AtomicLong();
+        final AtomicLong falsePositives = new AtomicLong();
+
+        // building을 먼저 읽어야 교체 직전에 들어온 값이 새 필터에서 빠지지 않음
+        void put(String value) {
+            BloomFilter next = building;
+            current.put(value);
+            if (next != null) {
+                next.put(value);
+            }
+        }
+
+        boolean mightContain(String value) {
+            if (!ready) {
+                return true;
+            }
+            boolean result = current.mightContain(value);
+            if (!result) {
+                skipped.incrementAndGet();
+            }
+            return result;
+        }
+
+        void record(boolean found) {
+            maybeHits.incrementAndGet();
+            if (!found) {
+                falsePositives.incrementAndGet();
+            }
+        }
+
+        double observedFalsePositiveRate() {
+            long total = maybeHits.get();
+            return total == 0 ? 0 : (double) falsePositives.get() / total;
+        }
+    }
+}
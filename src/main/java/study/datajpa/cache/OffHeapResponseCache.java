@@ -0,0 +1,98 @@
+package study.datajpa.cache;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 직렬화가 끝난 응답 바이트를 direct ByteBuffer(힙 밖)에 보관하는 LRU 캐시.
+ * 힙에 큰 byte[]가 쌓이지 않으므로 GC 부담이 없고, 꺼낼 때도 힙으로 복사하지 않고 버퍼 뷰(duplicate)만 넘김.
+ * 전체 바이트 수와 엔트리 수 둘 다로 제한하고, 넘치면 가장 오래 안 쓴 것부터 버림.
+ *
+ * generation: 무효화할 때마다 증가. 조회 시작 시점의 generation과 저장 시점이 다르면 저장하지 않음
+ * (쿼리 도중에 쓰기가 커밋된 경우 옛날 응답이 캐시에 들어가는 것 방지)
+ */
+public class OffHeapResponseCache {
+
+    public record Entry(ByteBuffer body, String contentType) {
+    }
+
+    private final long maxBytes;
+    private final int maxEntries;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private long bytes;
+
+    public OffHeapResponseCache(long maxBytes, int maxEntries) {
+        this.maxBytes = maxBytes;
+        this.maxEntries = maxEntries;
+    }
+
+    public synchronized Entry get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        // position/limit은 호출한 쪽마다 따로 -> 같은 메모리를 여러 요청이 동시에 읽어도 됨
+        return new Entry(entry.body().duplicate(), entry.contentType());
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    public void put(String key, byte[] body, String contentType, long expectedGeneration) {
+        if (body.length > maxBytes) {
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(body.length);
+        buffer.put(body).flip();
+        synchronized (this) {
+            if (generation.get() != expectedGeneration) {
+                return;
+            }
+            Entry previous = entries.put(key, new Entry(buffer.asReadOnlyBuffer(), contentType));
+            if (previous != null) {
+                bytes -= previous.body().capacity();
+            }
+            bytes += body.length;
+            evict();
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        generation.incrementAndGet();
+        entries.clear();
+        bytes = 0;
+    }
+
+    public synchronized long bytes() {
+        return bytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long hits() {
+        return hits.get();
+    }
+
+    public long misses() {
+        return misses.get();
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while ((bytes > maxBytes || entries.size() > maxEntries) && iterator.hasNext()) {
+            bytes -= iterator.next().getValue().body().capacity();
+            iterator.remove();
+        }
+    }
+}
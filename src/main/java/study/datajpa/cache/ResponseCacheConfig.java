@@ -0,0 +1,53 @@
+package study.datajpa.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+/**
+ * 목록 응답 캐시. 기본은 꺼져 있음 (datajpa.response-cache.enabled=true 로 켬).
+ * 인스턴스별 로컬 캐시라 여러 대로 띄우면 datajpa.invalidation.enabled=true 로 변경 피드도 같이 켜야 함.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datajpa.response-cache.enabled", havingValue = "true")
+public class ResponseCacheConfig {
+
+    @Bean
+    public OffHeapResponseCache offHeapResponseCache(
+            @Value("${datajpa.response-cache.max-bytes:67108864}") long maxBytes,
+            @Value("${datajpa.response-cache.max-entries:10000}") int maxEntries,
+            MeterRegistry meterRegistry) {
+        OffHeapResponseCache cache = new OffHeapResponseCache(maxBytes, maxEntries);
+        Gauge.builder("datajpa.response-cache.bytes", cache, OffHeapResponseCache::bytes).register(meterRegistry);
+        Gauge.builder("datajpa.response-cache.entries", cache, OffHeapResponseCache::size).register(meterRegistry);
+        FunctionCounter.builder("datajpa.response-cache.requests", cache, OffHeapResponseCache::hits)
+                .tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("datajpa.response-cache.requests", cache, OffHeapResponseCache::misses)
+                .tag("result", "miss").register(meterRegistry);
+        return cache;
+    }
+
+    @Bean
+    public FilterRegistrationBean<ResponseCacheFilter> responseCacheFilter(
+            OffHeapResponseCache cache, PageableHandlerMethodArgumentResolver pageableResolver,
+            @Qualifier("requestMappingHandlerMapping") RequestMappingHandlerMapping handlerMapping) {
+        FilterRegistrationBean<ResponseCacheFilter> registration = new FilterRegistrationBean<>(
+                new ResponseCacheFilter(cache, pageableResolver, handlerMapping));
+        registration.addUrlPatterns(ResponseCacheFilter.CACHED_PATHS.toArray(String[]::new));
+        return registration;
+    }
+
+    @Bean
+    public ResponseCacheInvalidator responseCacheInvalidator(OffHeapResponseCache cache, EntityManagerFactory emf) {
+        return new ResponseCacheInvalidator(cache, emf);
+    }
+}
@@ -0,0 +1,160 @@
+package study.datajpa.cache;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.catalina.connector.CoyoteOutputStream;
+import org.springframework.core.MethodParameter;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * /members, /membersDto 응답을 통째로 캐시.
+ * 캐시 히트면 컨트롤러/쿼리/직렬화를 모두 건너뛰고 off-heap 버퍼를 응답으로 씀.
+ *
+ * 응답 쓰기는 zero-copy가 아님 (sendfile은 파일에만 쓸 수 있음).
+ * - Tomcat이면 (클래스패스에 있을 때만) CoyoteOutputStream.write(ByteBuffer)로 direct 버퍼를 그대로 넘김. 버퍼가 비어 있을 때 출력 버퍼 크기 이상인
+ *   부분은 direct 버퍼에서 소켓 채널로 바로 쓰이고, 남는 부분만 Tomcat 출력/소켓 버퍼로 복사됨 (HTTPS면 암호화하면서 복사)
+ * - 그 외 컨테이너(또는 스트림이 감싸져 있으면)는 OutputStream 채널이 8KB 힙 byte[]로 나눠서 복사함
+ * 어느 쪽이든 응답 전체 크기의 byte[]는 만들지 않음.
+ */
+public class ResponseCacheFilter extends OncePerRequestFilter {
+
+    static final Set<String> CACHED_PATHS = Set.of("/members", "/membersDto");
+    private static final boolean TOMCAT_PRESENT = ClassUtils.isPresent(
+            "org.apache.catalina.connector.CoyoteOutputStream", ResponseCacheFilter.class.getClassLoader());
+
+    private final OffHeapResponseCache cache;
+    private final PageableHandlerMethodArgumentResolver pageableResolver;
+    private final RequestMappingHandlerMapping handlerMapping;
+    // 경로 -> 핸들러의 Pageable 파라미터 (@PageableDefault를 읽기 위해). 핸들러 매핑이 다 뜬 뒤 처음 요청 때 만듦
+    private volatile Map<String, MethodParameter> pageableParameters;
+
+    public ResponseCacheFilter(OffHeapResponseCache cache, PageableHandlerMethodArgumentResolver pageableResolver,
+                               RequestMappingHandlerMapping handlerMapping) {
+        this.cache = cache;
+        this.pageableResolver = pageableResolver;
+        this.handlerMapping = handlerMapping;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod()) || !CACHED_PATHS.contains(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = key(request);
+        OffHeapResponseCache.Entry entry = cache.get(key);
+        if (entry != null) {
+            write(response, entry);
+            return;
+        }
+
+        long generation = cache.generation();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        chain.doFilter(request, wrapper);
+        if (wrapper.getStatus() == HttpServletResponse.SC_OK) {
+            cache.put(key, wrapper.getContentAsByteArray(), wrapper.getContentType(), generation);
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    // 핸들러와 같은 리졸버 + @PageableDefault로 Pageable을 만들어서 키로 씀
+    // -> /members, /members?size=5, /members?sort=username 이 같은 키 (max-page-size, 잘못된 page 값 보정도 동일)
+    String key(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        MethodParameter parameter = pageableParameters().get(path);
+        Pageable pageable = pageableResolver.resolveArgument(parameter, null, new ServletWebRequest(request), null);
+        StringJoiner joiner = new StringJoiner("&", path + "?", "");
+        joiner.add("page=" + pageable.getPageNumber());
+        joiner.add("size=" + pageable.getPageSize());
+        for (Sort.Order order : pageable.getSort()) {
+            joiner.add("sort=" + order.getProperty() + "," + order.getDirection() + (order.isIgnoreCase() ? ",ignorecase" : ""));
+        }
+        String[] expand = request.getParameterValues("expand");
+        if (expand != null) {
+            // expand=team,x 와 expand=x&expand=team 이 같은 키
+            StringUtils.commaDelimitedListToSet(String.join(",", expand)).stream()
+                    .map(String::trim)
+                    .collect(Collectors.toCollection(TreeSet::new))
+                    .forEach(value -> joiner.add("expand=" + value));
+        }
+        return joiner.toString();
+    }
+
+    private Map<String, MethodParameter> pageableParameters() {
+        Map<String, MethodParameter> parameters = pageableParameters;
+        if (parameters == null) {
+            parameters = new HashMap<>();
+            for (Map.Entry<RequestMappingInfo, HandlerMethod> mapping : handlerMapping.getHandlerMethods().entrySet()) {
+                for (String pattern : mapping.getKey().getPatternValues()) {
+                    if (!CACHED_PATHS.contains(pattern)) {
+                        continue;
+                    }
+                    for (MethodParameter parameter : mapping.getValue().getMethodParameters()) {
+                        if (Pageable.class.equals(parameter.getParameterType())) {
+                            parameters.put(pattern, parameter);
+                        }
+                    }
+                }
+            }
+            if (!parameters.keySet().containsAll(CACHED_PATHS)) {
+                throw new IllegalStateException("no Pageable handler parameter for " + CACHED_PATHS);
+            }
+            pageableParameters = parameters;
+        }
+        return parameters;
+    }
+
+    private static void write(HttpServletResponse response, OffHeapResponseCache.Entry entry) throws IOException {
+        ByteBuffer body = entry.body();
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(entry.contentType());
+        response.setContentLength(body.remaining());
+        response.setHeader("X-Response-Cache", "HIT");
+        ServletOutputStream out = response.getOutputStream();
+        if (TOMCAT_PRESENT && TomcatWriter.write(out, body)) {
+            return;
+        }
+        WritableByteChannel channel = Channels.newChannel(out);
+        while (body.hasRemaining()) {
+            channel.write(body);
+        }
+    }
+
+    // Tomcat 클래스를 참조하는 코드는 여기만. Tomcat이 클래스패스에 있을 때만 로딩됨
+    private static final class TomcatWriter {
+
+        static boolean write(ServletOutputStream out, ByteBuffer body) throws IOException {
+            if (out instanceof CoyoteOutputStream coyote) {
+                coyote.write(body);
+                return true;
+            }
+            return false;
+        }
+    }
+}
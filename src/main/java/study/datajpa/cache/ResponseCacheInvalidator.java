@@ -0,0 +1,111 @@
+package study.datajpa.cache;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.invalidation.CacheInvalidationListener;
+import study.datajpa.invalidation.ChangeEvent;
+
+/**
+ * 회원/팀이 바뀌면 캐시된 목록 페이지를 전부 비움 (어느 페이지에 영향이 갈지 모르므로).
+ * - 엔티티 변경(save, delete, 변경 감지): 커밋 후 Hibernate 이벤트
+ * - 벌크 연산(MemberRepository.bulkAgePlus): 엔티티 이벤트가 없으므로 AOP로 잡아서 커밋 후
+ * - 다른 인스턴스의 변경: 변경 피드(invalidation 패키지)로 전달받음
+ * - JDBC로 직접 바꾼 변경(아카이빙, write-behind): JdbcChangeNotifier가 커밋 후 onRemoteChange로 전달
+ */
+@Aspect
+@RequiredArgsConstructor
+public class ResponseCacheInvalidator implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener, CacheInvalidationListener {
+
+    private final OffHeapResponseCache cache;
+    private final EntityManagerFactory emf;
+
+    @PostConstruct
+    public void registerListeners() {
+        EventListenerRegistry registry = emf.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @AfterReturning("this(study.datajpa.repository.MemberRepository) && execution(* bulkAgePlus(..))")
+    public void afterBulkUpdate() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.invalidateAll();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.invalidateAll();
+            }
+        });
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        invalidate(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        invalidate(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        invalidate(event.getEntity());
+    }
+
+    @Override
+    public void onRemoteChange(ChangeEvent event) {
+        if (ChangeEvent.ITEM.equals(event.region())) {
+            return; // 회원 목록 응답과 무관
+        }
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    // 커밋 후 리스너는 엔티티 종류와 상관없이 다 불리므로 여기서 거름
+    private void invalidate(Object entity) {
+        if (entity instanceof Member || entity instanceof Team) {
+            cache.invalidateAll();
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        Class<?> type = persister.getMappedClass();
+        return type == Member.class || type == Team.class;
+    }
+}
@@ -0,0 +1,81 @@
+package study.datajpa.config;
+
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import study.datajpa.metrics.ConnectionTimingDataSource;
+
+import java.util.Map;
+
+/**
+ * @Async("queryExecutor") 리파지토리 메서드를 돌리는 전용 스레드 풀.
+ * 스레드 하나가 커넥션 하나를 쥐므로 풀 크기를 커넥션 풀보다 작게 잡음
+ * -> 비동기 쿼리가 커넥션을 다 가져가서 요청 스레드가 굶는 일이 없도록.
+ *
+ * 트랜잭션은 스레드에 묶이므로 호출한 쪽 트랜잭션은 넘어가지 않음
+ * -> 비동기 메서드마다 @Transactional(readOnly = true)로 자기 트랜잭션을 엶.
+ *
+ * Executor 타입 빈이 하나라도 있으면 스프링 부트 기본 applicationTaskExecutor가 빠짐
+ * -> 그냥 @Async, MVC 비동기 요청이 queryExecutor로 가지 않도록 기본 실행기도 직접 등록 (spring.task.execution.* 설정 그대로).
+ */
+@EnableAsync
+@Configuration
+public class AsyncQueryConfig {
+
+    @Lazy
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor queryExecutor(
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize,
+            @Value("${datajpa.async.pool-size:0}") int poolSize) {
+        int size = poolSize > 0 ? poolSize : Math.max(1, connectionPoolSize / 2);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("query-");
+        executor.setCorePoolSize(size);
+        executor.setMaxPoolSize(size);
+        executor.setQueueCapacity(size * 20);
+        executor.setTaskDecorator(requestContextDecorator());
+        executor.initialize();
+        return executor;
+    }
+
+    // 작업에 필요한 값(엔드포인트 태그)만 MDC 스냅샷으로 복사해서 넘김
+    // 요청 객체 자체를 넘기면 타임아웃 뒤 요청이 끝나고 톰캣이 재사용하는 중에도 작업 스레드가 만지게 됨
+    private static TaskDecorator requestContextDecorator() {
+        return runnable -> {
+            Map<String, String> snapshot = MDC.getCopyOfContextMap();
+            String endpoint = ConnectionTimingDataSource.currentEndpoint();
+            return () -> {
+                Map<String, String> previous = MDC.getCopyOfContextMap();
+                if (snapshot != null) {
+                    MDC.setContextMap(snapshot);
+                } else {
+                    MDC.clear();
+                }
+                MDC.put(ConnectionTimingDataSource.ENDPOINT_MDC_KEY, endpoint);
+                try {
+                    runnable.run();
+                } finally {
+                    if (previous != null) {
+                        MDC.setContextMap(previous);
+                    } else {
+                        MDC.clear();
+                    }
+                }
+            };
+        };
+    }
+}
@@ -0,0 +1,30 @@
+package study.datajpa.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import study.datajpa.metrics.ConnectionTimingDataSource;
+
+import javax.sql.DataSource;
+
+@Configuration
+@ConditionalOnProperty(name = "datajpa.metrics.connection.enabled", havingValue = "true", matchIfMissing = true)
+public class ConnectionMetricsConfig {
+
+    // BeanPostProcessor는 static으로 등록해야 다른 빈보다 먼저 뜸
+    @Bean
+    public static BeanPostProcessor connectionTimingPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConnectionTimingDataSource)) {
+                    return new ConnectionTimingDataSource(dataSource, meterRegistry);
+                }
+                return bean;
+            }
+        };
+    }
+}
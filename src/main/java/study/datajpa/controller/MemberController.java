@@ -5,23 +5,57 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.MemberSummaryDto;
+import study.datajpa.dto.SliceResponse;
 import study.datajpa.entity.Member;
+import study.datajpa.importer.ImportFormat;
+import study.datajpa.importer.ImportReport;
+import study.datajpa.importer.MemberImportService;
+import study.datajpa.repository.MemberFetchPlan;
 import study.datajpa.repository.MemberRepository;
+import study.datajpa.service.MemberLookupService;
+import study.datajpa.service.MemberQueryService;
+import study.datajpa.service.MemberSummaryService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequiredArgsConstructor
 public class MemberController {
 
     private final MemberRepository memberRepository;
+    private final MemberQueryService memberQueryService;
+    private final MemberLookupService memberLookupService;
+    private final MemberSummaryService memberSummaryService;
+    private final MemberImportService memberImportService;
 
     @GetMapping("/members/{id}")
     public String findMember(@PathVariable("id") Long id) {
-        Member member = memberRepository.findById(id).get();
-        return member.getUsername();
+        return memberQueryService.findUsername(id).get();
+    }
+
+    // 같은 username 동시 조회는 쿼리 1번으로 합쳐짐 (MemberLookupService)
+    @GetMapping("/members/search")
+    public List<MemberDto> findByUsername(@RequestParam("username") String username) {
+        return memberLookupService.findByUsername(username);
+    }
+
+    @GetMapping("/members/search/one")
+    public MemberDto findOneByUsername(@RequestParam("username") String username) {
+        return memberLookupService.findOneByUsername(username)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
     }
 
     @GetMapping("/members2/{id}")
@@ -38,7 +72,8 @@ public class MemberController {
     }
 
     @GetMapping("/members")
-    public Page<Member> list(@PageableDefault(size = 5, sort = "username") Pageable pageable) {
+    public Page<MemberDto> list(@PageableDefault(size = 5, sort = "username") Pageable pageable,
+                                @RequestParam(value = "expand", required = false) Set<String> expand) {
         // default 설정 바꿔준 것
 
         //Pageable : 파라미터 정보를 담은 인터페이스 -> 인터페이스이지만 구현체로 Spring Boot가 자동 세팅해줌!
@@ -47,16 +82,48 @@ public class MemberController {
         //값을 채워다가 인젝션을 해줌!!
         //Page : 결과 정보를 담은 인터페이스
         //반환타입이 Page이므로 "totalPages": 34, "totalElements": 100 같은 것들이 나옴
-        return memberRepository.findAll(pageable);
+
+        //open-in-view: false -> 엔티티를 그대로 내보내면 직렬화 중에 지연 로딩이 터짐
+        //서비스 트랜잭션 안에서 DTO로 바꿔서 반환 (직렬화 전에 커넥션 반환)
+
+        //?expand=team 일 때만 team을 같이 조회 (허용되지 않은 값이면 400)
+        return memberQueryService.findMembers(fetchPlan(expand), pageable);
     }
 
     //엔티티를 API로 노출하면 문제 발생 가능 -> 엔티티를 꼭 DTO로 변환해야
     @GetMapping("/membersDto")
-    public Page<MemberDto> listDto(@PageableDefault(size = 5) Pageable pageable) {
-        Page<Member> page = memberRepository.findAll(pageable);
-        return page.map(member -> new MemberDto(member.getId(), member.getUsername(), null));
+    public Page<MemberDto> listDto(@PageableDefault(size = 5) Pageable pageable,
+                                   @RequestParam(value = "expand", required = false) Set<String> expand) {
+        return memberQueryService.findMembers(fetchPlan(expand), pageable);
     }
 
+    private static MemberFetchPlan fetchPlan(Set<String> expand) {
+        try {
+            return MemberFetchPlan.of(expand);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    // 모바일 무한 스크롤: /members/feed?size=20 -> 응답의 nextCursor를 다음 요청의 cursor로
+    @GetMapping("/members/feed")
+    public SliceResponse<MemberDto> feed(@RequestParam(value = "cursor", required = false) Long cursor,
+                                         @RequestParam(value = "size", defaultValue = "20") int size) {
+        return memberQueryService.findFeed(cursor, size);
+    }
+
+    // 독립적인 쿼리를 병렬로 실행해서 합침
+    @GetMapping("/members/summary")
+    public MemberSummaryDto summary(@RequestParam(value = "age", defaultValue = "10") int age) {
+        return memberSummaryService.summary(age);
+    }
+
+    // 대량 등록: 본문을 스트리밍으로 읽음 (NDJSON 또는 username,age,team CSV)
+    // curl -X POST -H 'Content-Type: application/x-ndjson' --data-binary @members.ndjson localhost:8080/members/import
+    @PostMapping(value = "/members/import", consumes = {ImportFormat.NDJSON_VALUE, ImportFormat.CSV_VALUE})
+    public ImportReport importMembers(@RequestHeader("Content-Type") String contentType, InputStream body) throws IOException {
+        return memberImportService.importMembers(body, ImportFormat.from(contentType));
+    }
 
 //    @PostConstruct
     public void init() {
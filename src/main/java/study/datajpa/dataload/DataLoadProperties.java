@@ -0,0 +1,24 @@
+package study.datajpa.dataload;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.LocalDateTime;
+
+@Getter @Setter
+@ConfigurationProperties(prefix = "datajpa.dataload")
+public class DataLoadProperties {
+
+    private boolean enabled = false;
+    private int teams = 1_000;
+    private int members = 1_000_000;
+    private int items = 100_000;
+    private long seed = 42L;
+    private int batchSize = 1_000;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    // createdDate를 과거 몇 일에 걸쳐 흩뿌릴지
+    private int createdDaysBack = 3 * 365;
+    // createdDate는 이 시각에서 거꾸로 흩뿌림 (실행 시각을 쓰면 같은 seed라도 데이터가 달라짐)
+    private LocalDateTime createdUntil = LocalDateTime.of(2024, 1, 1, 0, 0);
+}
@@ -0,0 +1,139 @@
+package study.datajpa.dataload;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+
+/**
+ * 대용량 테스트 데이터 생성기.
+ * save()를 한 건씩 부르는 대신 JDBC batch insert를 청크 단위로 병렬 실행.
+ * 청크마다 seed + 청크 번호로 난수를 만들기 때문에 스레드 수와 상관없이 항상 같은 데이터가 나옴.
+ * createdDate도 현재 시각이 아니라 고정 기준 시각(createdUntil)에서 거꾸로 흩뿌림 -> 실행 시각과 무관.
+ *
+ * ./gradlew loadData -Pmembers=1000000 -Pteams=1000 -Pitems=100000 -Pseed=42
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@EnableConfigurationProperties(DataLoadProperties.class)
+@ConditionalOnProperty(name = "datajpa.dataload.enabled", havingValue = "true")
+public class SyntheticDataLoader implements CommandLineRunner {
+
+    private static final String[] NAMES = {
+            "minjun", "seoyeon", "jiho", "haeun", "doyun", "jiwoo", "eunwoo", "seoah", "junseo", "hayoon",
+            "james", "olivia", "liam", "emma", "noah", "ava", "lucas", "mia", "ethan", "sofia",
+            "yuki", "haruto", "wei", "mei", "arjun", "priya", "mateo", "lucia", "omar", "fatima"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataLoadProperties properties;
+
+    @Override
+    public void run(String... args) throws Exception {
+        long start = System.currentTimeMillis();
+        // 기존 데이터와 겹치지 않도록 현재 최대 id 뒤에서부터 채움
+        long teamBase = maxId("select coalesce(max(team_id), 0) from team");
+        long memberBase = maxId("select coalesce(max(member_id), 0) from member");
+        // item id는 문자열("item-{seed}-{번호}")이라 같은 seed로 이미 넣은 최대 번호 다음부터
+        String itemPrefix = "item-" + properties.getSeed() + "-";
+        long itemBase = jdbcTemplate.queryForObject(
+                "select coalesce(max(cast(substring(id, ?) as bigint)), -1) + 1 from item where id like ?",
+                Long.class, itemPrefix.length() + 1, itemPrefix + "%");
+        LocalDateTime until = properties.getCreatedUntil();
+
+        ExecutorService executor = Executors.newFixedThreadPool(properties.getThreads());
+        try {
+            load(executor, "team", properties.getTeams(),
+                    "insert into team (team_id, name) values (?, ?)",
+                    (index, random) -> new Object[]{teamBase + index + 1, "team" + (teamBase + index + 1)});
+
+            load(executor, "member", properties.getMembers(),
+                    "insert into member (member_id, username, age, team_id, created_date, last_modified_date) values (?, ?, ?, ?, ?, ?)",
+                    (index, random) -> memberRow(memberBase + index + 1, teamBase, until, random));
+
+            load(executor, "item", properties.getItems(),
+                    "insert into item (id, created_date) values (?, ?)",
+                    (index, random) -> new Object[]{
+                            itemPrefix + (itemBase + index),
+                            Timestamp.valueOf(createdDate(until, random))});
+        } finally {
+            executor.shutdown();
+        }
+
+        // 이후 JPA로 persist할 때 id가 겹치지 않게 시퀀스를 뒤로 밀어줌 (allocationSize 50 여유분 포함)
+        restartSequence("team_seq", teamBase + properties.getTeams());
+        restartSequence("member_seq", memberBase + properties.getMembers());
+
+        log.info("data load finished teams={} members={} items={} seed={} elapsed={}ms",
+                properties.getTeams(), properties.getMembers(), properties.getItems(),
+                properties.getSeed(), System.currentTimeMillis() - start);
+    }
+
+    private void load(ExecutorService executor, String table, int total, String sql,
+                      BiFunction<Long, SplittableRandom, Object[]> rowMapper) throws Exception {
+        int batchSize = properties.getBatchSize();
+        List<Future<?>> futures = new ArrayList<>();
+        for (long chunkStart = 0; chunkStart < total; chunkStart += batchSize) {
+            long from = chunkStart;
+            long to = Math.min(total, chunkStart + batchSize);
+            futures.add(executor.submit(() -> {
+                SplittableRandom random = new SplittableRandom(properties.getSeed() * 31 + table.hashCode() + from);
+                List<Object[]> rows = new ArrayList<>((int) (to - from));
+                for (long i = from; i < to; i++) {
+                    rows.add(rowMapper.apply(i, random));
+                }
+                jdbcTemplate.batchUpdate(sql, rows);
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        log.info("loaded {} rows into {}", total, table);
+    }
+
+    private Object[] memberRow(long id, long teamBase, LocalDateTime until, SplittableRandom random) {
+        String username = NAMES[random.nextInt(NAMES.length)] + random.nextInt(100_000);
+        // 팀 없는 회원도 10% 정도
+        Long teamId = properties.getTeams() == 0 || random.nextInt(10) == 0
+                ? null
+                : teamBase + 1 + random.nextInt(properties.getTeams());
+        Timestamp created = Timestamp.valueOf(createdDate(until, random));
+        return new Object[]{id, username, age(random), teamId, created, created};
+    }
+
+    // 평균 35, 표준편차 12 정도의 정규분포를 10~90으로 자름
+    private static int age(SplittableRandom random) {
+        double gaussian = 0;
+        for (int i = 0; i < 12; i++) {
+            gaussian += random.nextDouble();
+        }
+        int age = (int) Math.round(35 + (gaussian - 6) * 12);
+        return Math.max(10, Math.min(90, age));
+    }
+
+    private LocalDateTime createdDate(LocalDateTime until, SplittableRandom random) {
+        return until.minusMinutes(random.nextLong(Math.max(1, properties.getCreatedDaysBack()) * 24L * 60));
+    }
+
+    private long maxId(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+
+    private void restartSequence(String sequence, long lastId) {
+        jdbcTemplate.execute("alter sequence " + sequence + " restart with " + (lastId + 100));
+    }
+}
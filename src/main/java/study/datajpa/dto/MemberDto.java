@@ -1,6 +1,7 @@
 package study.datajpa.dto;
 
 import lombok.Data;
+import study.datajpa.entity.Member;
 
 @Data
 public class MemberDto {
@@ -14,4 +15,16 @@ public class MemberDto {
         this.username = username;
         this.teamName = teamName;
     }
+
+    // 트랜잭션 안에서만 호출해야 함 (team 지연 로딩)
+    public MemberDto(Member member) {
+        this(member, true);
+    }
+
+    // includeTeam = false 면 team을 건드리지 않음 (지연 로딩 쿼리 방지)
+    public MemberDto(Member member, boolean includeTeam) {
+        this.id = member.getId();
+        this.username = member.getUsername();
+        this.teamName = includeTeam && member.getTeam() != null ? member.getTeam().getName() : null;
+    }
 }
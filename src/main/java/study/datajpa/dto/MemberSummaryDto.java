@@ -0,0 +1,19 @@
+package study.datajpa.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class MemberSummaryDto {
+
+    private List<MemberDto> members;
+    private long teamCount;
+    private List<MemberDto> sameAgeMembers;
+
+    public MemberSummaryDto(List<MemberDto> members, long teamCount, List<MemberDto> sameAgeMembers) {
+        this.members = members;
+        this.teamCount = teamCount;
+        this.sameAgeMembers = sameAgeMembers;
+    }
+}
@@ -0,0 +1,31 @@
+package study.datajpa.dto;
+
+import lombok.Getter;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.function.Function;
+
+// 무한 스크롤용 응답. Page JSON의 pageable/sort/totalElements 같은 건 전부 뺌
+@Getter
+public class SliceResponse<T> {
+
+    private final List<T> items;
+    private final boolean hasNext;
+    private final Long nextCursor;
+
+    public SliceResponse(List<T> items, boolean hasNext, Long nextCursor) {
+        this.items = items;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+    }
+
+    // 마지막 항목의 키가 다음 요청의 cursor가 됨
+    public static <T> SliceResponse<T> of(Slice<T> slice, Function<T, Long> cursorKey) {
+        List<T> content = slice.getContent();
+        Long nextCursor = slice.hasNext() && !content.isEmpty()
+                ? cursorKey.apply(content.get(content.size() - 1))
+                : null;
+        return new SliceResponse<>(content, slice.hasNext(), nextCursor);
+    }
+}
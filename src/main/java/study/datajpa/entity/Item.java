@@ -10,13 +10,15 @@ import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.domain.Persistable;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+import study.datajpa.id.AssignIdListener;
+import study.datajpa.id.AssignableId;
 
 import java.time.LocalDateTime;
 
 @Entity
-@EntityListeners(AuditingEntityListener.class) // @CreatedDate를 활용하기 위해.. 보통은 BaseEntity로 해결함
+@EntityListeners({AuditingEntityListener.class, AssignIdListener.class}) // @CreatedDate를 활용하기 위해.. 보통은 BaseEntity로 해결함
 @NoArgsConstructor(access = AccessLevel.PROTECTED) //JPA는 기본 생성자가 있어야 하므로 (protected까지 가능)
-public class Item implements Persistable<String> {
+public class Item implements Persistable<String>, AssignableId {
 
 //    @Id @GeneratedValue
 //    private Long id; //id값은 JPA에 persist를 하면 그 안에서 값이 들어감!
@@ -33,6 +35,16 @@ public class Item implements Persistable<String> {
         this.id = id;
     }
 
+    // id 없이 만들면 persist 직전에 시간순 식별자가 채워짐 (랜덤 UUID는 PK 인덱스 전체에 흩어져서 insert가 비쌈)
+    public static Item create() {
+        return new Item();
+    }
+
+    @Override
+    public void assignId(String id) {
+        this.id = id;
+    }
+
     @Override
     public String getId() {
         return id;
@@ -7,6 +7,7 @@ import lombok.*;
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "username", "age"})
+@Table(indexes = @Index(name = "idx_member_last_modified_date", columnList = "lastModifiedDate")) // 아카이빙 대상 찾기용
 public class Member extends BaseEntity {
 
     @Id @GeneratedValue
@@ -19,6 +20,11 @@ public class Member extends BaseEntity {
     @JoinColumn(name = "team_id")
     private Team team;
 
+    // member_archive에서 복원한 조회 전용 사본이면 true (저장 불가, ArchivedMemberGuard)
+    @Transient
+    @Setter(AccessLevel.NONE)
+    private boolean archived;
+
     public Member(String username) {
         this.username = username;
     }
@@ -41,6 +47,10 @@ public class Member extends BaseEntity {
 //        this.username = username;
 //    }
 
+    public void markArchived() {
+        this.archived = true;
+    }
+
     // 연관관계를 설정하는 메소드
     // 객체이므로 팀의 멤버도 변경을 해주어야
     public void changeTeam(Team team) {
@@ -0,0 +1,39 @@
+package study.datajpa.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+// 오래 안 쓰인 회원을 옮겨두는 콜드 테이블. member 테이블과 컬럼을 맞춰둠 (insert ... select로 옮기기 때문)
+// 연관관계 없이 team_id 값만 들고 있음
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString(of = {"id", "username", "age", "archivedDate"})
+@Table(indexes = @Index(name = "idx_member_archive_username", columnList = "username"))
+public class MemberArchive {
+
+    @Id
+    @Column(name = "member_id")
+    private Long id;
+    private String username;
+    private int age;
+
+    @Column(name = "team_id")
+    private Long teamId;
+
+    private LocalDateTime createdDate;
+    private LocalDateTime lastModifiedDate;
+    private String createdBy;
+    private String lastModifiedBy;
+
+    private LocalDateTime archivedDate;
+}
@@ -0,0 +1,26 @@
+package study.datajpa.id;
+
+import jakarta.persistence.PrePersist;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA 엔티티 리스너. Hibernate가 스프링 빈 컨테이너에서 꺼내 쓰므로 생성자 주입이 됨.
+ * @PrePersist는 Hibernate가 할당 식별자를 확인하기 전에 호출됨 -> id 없이 persist 해도 여기서 채워짐
+ * isNew()는 save() 시점(persist 전)에 판단하므로 id를 나중에 채워도 Persistable 동작은 그대로
+ */
+@Component
+public class AssignIdListener {
+
+    private final IdGenerator idGenerator;
+
+    public AssignIdListener(IdGenerator idGenerator) {
+        this.idGenerator = idGenerator;
+    }
+
+    @PrePersist
+    public void assignId(Object entity) {
+        if (entity instanceof AssignableId assignable && assignable.getId() == null) {
+            assignable.assignId(idGenerator.nextId());
+        }
+    }
+}
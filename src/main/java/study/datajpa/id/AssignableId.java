@@ -0,0 +1,12 @@
+package study.datajpa.id;
+
+/**
+ * persist 직전에 IdGenerator로 식별자를 채워 받는 엔티티 (@Id를 직접 할당하는 Persistable 엔티티용).
+ * @EntityListeners(AssignIdListener.class) 와 같이 사용. 이미 id가 있으면 그대로 둠
+ */
+public interface AssignableId {
+
+    String getId();
+
+    void assignId(String id);
+}
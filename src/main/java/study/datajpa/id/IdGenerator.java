@@ -0,0 +1,7 @@
+package study.datajpa.id;
+
+// 엔티티 식별자 생성기. 기본 구현은 TimeOrderedIdGenerator, 바꾸려면 다른 구현을 @Primary 빈으로 등록
+public interface IdGenerator {
+
+    String nextId();
+}
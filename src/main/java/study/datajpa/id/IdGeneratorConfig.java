@@ -0,0 +1,24 @@
+package study.datajpa.id;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(IdGeneratorProperties.class)
+public class IdGeneratorConfig {
+
+    @Bean
+    public IdGenerator timeOrderedIdGenerator(IdGeneratorProperties properties) {
+        Integer node = properties.getNodeId();
+        if (node == null) {
+            node = ThreadLocalRandom.current().nextInt(TimeOrderedIdGenerator.MAX_NODE + 1);
+            log.warn("datajpa.id.node-id is not set, using random node {} (set it per instance to rule out collisions)", node);
+        }
+        return new TimeOrderedIdGenerator(node, properties.getEpoch());
+    }
+}
@@ -0,0 +1,17 @@
+package study.datajpa.id;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Instant;
+
+@Getter @Setter
+@ConfigurationProperties(prefix = "datajpa.id")
+public class IdGeneratorProperties {
+
+    // 인스턴스마다 달라야 함 (0 ~ 1023). 안 주면 기동할 때 랜덤으로 고름
+    private Integer nodeId;
+    // 41비트 밀리초 = 약 69년. 바꾸면 기존 식별자와 순서가 어긋나므로 한 번 정하면 고정
+    private Instant epoch = Instant.parse("2024-01-01T00:00:00Z");
+}
@@ -0,0 +1,112 @@
+package study.datajpa.id;
+
+import java.time.Instant;
+import java.util.function.LongSupplier;
+
+/**
+ * 시간순 정렬되는 짧은 식별자 (Snowflake 배치를 Crockford base32 13자리로 표기).
+ * 64비트 = 부호 1 | 밀리초(epoch 이후) 41 | 노드 10 | 같은 밀리초 안의 순번 12
+ * - 고정 길이 + 알파벳이 ASCII 오름차순 -> 문자열 정렬 = 생성 순서. 새 행이 PK 인덱스의 오른쪽 끝에만 붙어서
+ *   랜덤 UUID처럼 B-tree 전체에 흩어지며 페이지 분할을 일으키지 않음
+ * - 36자 UUID 문자열보다 짧아서 인덱스(와 그걸 참조하는 FK)가 작아짐
+ * - 인스턴스마다 node를 다르게 줘야 충돌이 없음 (노드당 밀리초에 4096개까지, 넘으면 다음 밀리초까지 대기)
+ * - 시계가 뒤로 가면 마지막 시각을 계속 쓰면서 순번을 올려서 단조 증가를 유지
+ */
+public class TimeOrderedIdGenerator implements IdGenerator {
+
+    public static final int NODE_BITS = 10;
+    public static final int SEQUENCE_BITS = 12;
+    public static final int MAX_NODE = (1 << NODE_BITS) - 1;
+    private static final int MAX_SEQUENCE = (1 << SEQUENCE_BITS) - 1;
+    private static final int TIMESTAMP_SHIFT = NODE_BITS + SEQUENCE_BITS;
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    public static final int LENGTH = 13; // ceil(64 / 5)
+
+    private final long epochMillis;
+    private final long node;
+    private final LongSupplier clock;
+
+    private long lastTimestamp = -1;
+    private long sequence;
+
+    public TimeOrderedIdGenerator(int node, Instant epoch) {
+        this(node, epoch, System::currentTimeMillis);
+    }
+
+    TimeOrderedIdGenerator(int node, Instant epoch, LongSupplier clock) {
+        if (node < 0 || node > MAX_NODE) {
+            throw new IllegalArgumentException("node must be between 0 and " + MAX_NODE + ": " + node);
+        }
+        this.node = node;
+        this.epochMillis = epoch.toEpochMilli();
+        this.clock = clock;
+    }
+
+    @Override
+    public String nextId() {
+        return encode(nextLong());
+    }
+
+    public synchronized long nextLong() {
+        long timestamp = Math.max(clock.getAsLong() - epochMillis, lastTimestamp);
+        if (timestamp == lastTimestamp) {
+            sequence = (sequence + 1) & MAX_SEQUENCE;
+            if (sequence == 0) {
+                // 이번 밀리초 순번을 다 씀 -> 시계가 넘어갈 때까지 (시계가 뒤로 갔으면 논리 시각을 하나 올림)
+                timestamp = waitNextMillis(lastTimestamp);
+            }
+        } else {
+            sequence = 0;
+        }
+        lastTimestamp = timestamp;
+        return (timestamp << TIMESTAMP_SHIFT) | (node << SEQUENCE_BITS) | sequence;
+    }
+
+    // 식별자에서 생성 시각 복원 (디버깅/파티셔닝용)
+    public Instant timestampOf(String id) {
+        return Instant.ofEpochMilli((decode(id) >>> TIMESTAMP_SHIFT) + epochMillis);
+    }
+
+    static String encode(long value) {
+        char[] chars = new char[LENGTH];
+        for (int i = LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (value & 31)];
+            value >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    static long decode(String id) {
+        long value = 0;
+        for (int i = 0; i < id.length(); i++) {
+            int digit = indexOf(id.charAt(i));
+            if (digit < 0) {
+                throw new IllegalArgumentException("not a time-ordered id: " + id);
+            }
+            value = (value << 5) | digit;
+        }
+        return value;
+    }
+
+    private static int indexOf(char c) {
+        for (int i = 0; i < ALPHABET.length; i++) {
+            if (ALPHABET[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private long waitNextMillis(long last) {
+        long deadline = System.nanoTime() + 2_000_000;
+        long timestamp;
+        while ((timestamp = clock.getAsLong() - epochMillis) <= last) {
+            if (System.nanoTime() > deadline) {
+                return last + 1;
+            }
+            Thread.onSpinWait();
+        }
+        return timestamp;
+    }
+}
@@ -0,0 +1,22 @@
+package study.datajpa.importer;
+
+import org.springframework.http.MediaType;
+
+public enum ImportFormat {
+
+    NDJSON, CSV;
+
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+    public static final String CSV_VALUE = "text/csv";
+
+    public static ImportFormat from(String contentType) {
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        if (mediaType.isCompatibleWith(MediaType.parseMediaType(NDJSON_VALUE))) {
+            return NDJSON;
+        }
+        if (mediaType.isCompatibleWith(MediaType.parseMediaType(CSV_VALUE))) {
+            return CSV;
+        }
+        throw new IllegalArgumentException("unsupported content type: " + contentType);
+    }
+}
@@ -0,0 +1,20 @@
+package study.datajpa.importer;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+// 이미 import가 진행 중 -> 429 + Retry-After. writer 풀 큐 뒤에서 기다리게 하지 않고 바로 돌려보냄
+public class ImportInProgressException extends ResponseStatusException {
+
+    public ImportInProgressException() {
+        super(HttpStatus.TOO_MANY_REQUESTS, "another member import is in progress");
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "5");
+        return headers;
+    }
+}
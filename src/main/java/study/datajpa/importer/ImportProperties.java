@@ -0,0 +1,18 @@
+package study.datajpa.importer;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter @Setter
+@ConfigurationProperties(prefix = "datajpa.import")
+public class ImportProperties {
+
+    // 한 트랜잭션(= JDBC 배치 한 번)에 넣는 행 수
+    private int chunkSize = 1_000;
+    // 파싱은 끝났는데 아직 못 쓴 청크 수 상한. 꽉 차면 파싱(요청 본문 읽기)이 멈춤
+    private int queueCapacity = 4;
+    private int writers = 2;
+    // 응답에 담는 행 오류 수 상한 (건수는 전부 셈)
+    private int maxReportedErrors = 100;
+}
@@ -0,0 +1,10 @@
+package study.datajpa.importer;
+
+import java.util.List;
+
+public record ImportReport(long rowsRead, long imported, long failed, List<RowError> errors,
+                           long elapsedMillis, double rowsPerSecond) {
+
+    public record RowError(long line, String message) {
+    }
+}
@@ -0,0 +1,5 @@
+package study.datajpa.importer;
+
+// 파싱이 끝난 한 행. line은 오류 보고용 (원본 파일의 줄 번호)
+record ImportRow(long line, String username, int age, String teamName) {
+}
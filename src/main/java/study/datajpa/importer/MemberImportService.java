@@ -0,0 +1,255 @@
+package study.datajpa.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 회원 대량 등록. 요청 본문을 한 줄씩 읽어서(전체를 메모리에 올리지 않음) 청크로 묶고,
+ * 크기가 정해진 큐를 거쳐 writer 스레드들이 청크마다 한 트랜잭션으로 insert.
+ * - DB가 느리면 큐가 차고 -> 파싱이 멈추고 -> 요청 본문을 안 읽으므로 클라이언트 전송도 느려짐 (backpressure)
+ * - 청크 하나가 실패하면 그 청크만 롤백, 나머지는 계속 진행
+ * - JDBC 직접 insert가 아니라 persist + JDBC 배치 -> 엔티티 이벤트(캐시 무효화, Bloom 등)가 그대로 동작
+ * writer 풀은 전체 import가 공유하므로 커넥션을 writers개 넘게 쓰지 않음.
+ * 한 번에 import 하나만 받음: 두 번째 import의 writer 작업은 풀 큐에서 첫 import가 끝나길 기다리게 되므로
+ * (그동안 요청 스레드는 enqueue에서 멈춤) 줄 세우지 않고 429로 거절.
+ */
+@Slf4j
+@Service
+@EnableConfigurationProperties(ImportProperties.class)
+public class MemberImportService {
+
+    // writer에게 끝을 알리는 표시
+    private static final List<ImportRow> END = List.of();
+
+    private final EntityManager em;
+    private final TransactionTemplate transactionTemplate;
+    private final ImportProperties properties;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService writers;
+    private final Semaphore running = new Semaphore(1);
+
+    public MemberImportService(EntityManager em, PlatformTransactionManager transactionManager,
+                               ImportProperties properties, ObjectMapper objectMapper) {
+        this.em = em;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.writers = Executors.newFixedThreadPool(properties.getWriters());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writers.shutdown();
+    }
+
+    public ImportReport importMembers(InputStream body, ImportFormat format) throws IOException {
+        if (!running.tryAcquire()) {
+            throw new ImportInProgressException();
+        }
+        try {
+            return runImport(body, format);
+        } finally {
+            running.release();
+        }
+    }
+
+    private ImportReport runImport(InputStream body, ImportFormat format) throws IOException {
+        long start = System.nanoTime();
+        Progress progress = new Progress(properties.getMaxReportedErrors());
+        TeamIdLookup teams = new TeamIdLookup();
+        BlockingQueue<List<ImportRow>> queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < properties.getWriters(); i++) {
+            futures.add(writers.submit(() -> drain(queue, teams, progress)));
+        }
+
+        MemberRowParser parser = new MemberRowParser(format, objectMapper);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            List<ImportRow> chunk = new ArrayList<>(properties.getChunkSize());
+            long line = 0;
+            String text;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                if (text.isBlank() || parser.isHeader(line, text)) {
+                    continue;
+                }
+                progress.rowsRead.incrementAndGet();
+                try {
+                    chunk.add(parser.parse(line, text));
+                } catch (IllegalArgumentException e) {
+                    progress.fail(line, e.getMessage());
+                }
+                if (chunk.size() == properties.getChunkSize()) {
+                    enqueue(queue, chunk, futures);
+                    chunk = new ArrayList<>(properties.getChunkSize());
+                }
+            }
+            if (!chunk.isEmpty()) {
+                enqueue(queue, chunk, futures);
+            }
+        } finally {
+            // 본문을 읽다가 실패해도 이미 넘긴 청크는 마저 쓰고 끝냄
+            for (int i = 0; i < futures.size(); i++) {
+                enqueue(queue, END, futures);
+            }
+            awaitWriters(futures);
+        }
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        ImportReport report = progress.report(elapsedMillis);
+        log.info("member import format={} read={} imported={} failed={} elapsed={}ms ({} rows/s)", format,
+                report.rowsRead(), report.imported(), report.failed(), elapsedMillis, (long) report.rowsPerSecond());
+        return report;
+    }
+
+    // 큐가 꽉 차 있으면 여기서 대기 = 파싱 중단. writer가 다 죽었으면 무한 대기하지 않도록 확인
+    private void enqueue(BlockingQueue<List<ImportRow>> queue, List<ImportRow> chunk, List<Future<?>> futures) {
+        try {
+            while (!queue.offer(chunk, 1, TimeUnit.SECONDS)) {
+                if (futures.stream().allMatch(Future::isDone)) {
+                    throw new IllegalStateException("import writers stopped");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("import interrupted", e);
+        }
+    }
+
+    private void awaitWriters(List<Future<?>> futures) {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("import interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("import writer failed", e.getCause());
+            }
+        }
+    }
+
+    private void drain(BlockingQueue<List<ImportRow>> queue, TeamIdLookup teams, Progress progress)
+            throws InterruptedException {
+        List<ImportRow> chunk;
+        while ((chunk = queue.take()) != END) {
+            write(chunk, teams, progress);
+        }
+    }
+
+    private void write(List<ImportRow> chunk, TeamIdLookup teams, Progress progress) {
+        List<ImportRow> accepted = new ArrayList<>(chunk.size());
+        List<ImportReport.RowError> rejected = new ArrayList<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                em.unwrap(Session.class).setJdbcBatchSize(chunk.size());
+                for (ImportRow row : chunk) {
+                    Member member = new Member(row.username(), row.age());
+                    if (row.teamName() != null) {
+                        Optional<Long> teamId = teams.resolve(row.teamName());
+                        if (teamId.isEmpty()) {
+                            rejected.add(new ImportReport.RowError(row.line(), "unknown team: " + row.teamName()));
+                            continue;
+                        }
+                        // changeTeam은 team.members 컬렉션을 초기화하므로 참조만 걸어줌
+                        member.setTeam(em.getReference(Team.class, teamId.get()));
+                    }
+                    em.persist(member);
+                    accepted.add(row);
+                }
+            });
+            progress.imported.addAndGet(accepted.size());
+        } catch (RuntimeException e) {
+            log.warn("import chunk lines {}-{} rolled back", chunk.get(0).line(), chunk.get(chunk.size() - 1).line(), e);
+            for (ImportRow row : accepted) {
+                progress.fail(row.line(), "chunk rolled back: " + e.getMessage());
+            }
+        }
+        rejected.forEach(error -> progress.fail(error.line(), error.message()));
+    }
+
+    // 팀 이름 -> id. import 한 번 동안만 캐시 (없는 이름도 캐시해서 반복 조회 안 함)
+    // computeIfAbsent 안에서 쿼리하면 같은 bin의 다른 writer가 쿼리 동안 막힘 -> 밖에서 조회하고 putIfAbsent
+    // (처음에 여러 writer가 같은 이름을 동시에 조회할 수는 있지만 결과는 같음)
+    private class TeamIdLookup {
+
+        private final Map<String, Optional<Long>> ids = new ConcurrentHashMap<>();
+
+        Optional<Long> resolve(String name) {
+            Optional<Long> cached = ids.get(name);
+            if (cached != null) {
+                return cached;
+            }
+            Optional<Long> id = em.createQuery(
+                            "select t.id from Team t where t.name = :name order by t.id", Long.class)
+                    .setParameter("name", name)
+                    .setMaxResults(1)
+                    .getResultStream()
+                    .findFirst();
+            Optional<Long> raced = ids.putIfAbsent(name, id);
+            return raced != null ? raced : id;
+        }
+    }
+
+    private static class Progress {
+
+        private final AtomicLong rowsRead = new AtomicLong();
+        private final AtomicLong imported = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final List<ImportReport.RowError> errors = new ArrayList<>();
+        private final int maxErrors;
+
+        Progress(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        void fail(long line, String message) {
+            failed.incrementAndGet();
+            synchronized (errors) {
+                if (errors.size() < maxErrors) {
+                    errors.add(new ImportReport.RowError(line, message));
+                }
+            }
+        }
+
+        ImportReport report(long elapsedMillis) {
+            List<ImportReport.RowError> sorted;
+            synchronized (errors) {
+                sorted = errors.stream()
+                        .sorted((a, b) -> Long.compare(a.line(), b.line()))
+                        .toList();
+            }
+            double rowsPerSecond = elapsedMillis == 0 ? imported.get() : imported.get() * 1000.0 / elapsedMillis;
+            return new ImportReport(rowsRead.get(), imported.get(), failed.get(), sorted, elapsedMillis, rowsPerSecond);
+        }
+    }
+}
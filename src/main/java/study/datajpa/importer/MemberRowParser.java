@@ -0,0 +1,105 @@
+package study.datajpa.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 한 줄 = 한 회원.
+ * - NDJSON: {"username":"a","age":10,"team":"teamA"}
+ * - CSV: username,age,team (첫 줄이 헤더면 건너뜀, 큰따옴표로 감싼 값 지원)
+ * team은 생략 가능. 잘못된 행은 IllegalArgumentException -> 행 오류로 보고
+ */
+class MemberRowParser {
+
+    private final ImportFormat format;
+    private final ObjectMapper objectMapper;
+
+    MemberRowParser(ImportFormat format, ObjectMapper objectMapper) {
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    boolean isHeader(long line, String text) {
+        return format == ImportFormat.CSV && line == 1 && text.trim().toLowerCase().startsWith("username");
+    }
+
+    ImportRow parse(long line, String text) {
+        return format == ImportFormat.NDJSON ? parseJson(line, text) : parseCsv(line, text);
+    }
+
+    private ImportRow parseJson(long line, String text) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(text);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("malformed json: " + e.getOriginalMessage());
+        }
+        if (!node.isObject()) {
+            throw new IllegalArgumentException("expected a json object");
+        }
+        JsonNode age = node.path("age");
+        if (!age.isMissingNode() && !age.canConvertToInt()) {
+            throw new IllegalArgumentException("age must be an integer");
+        }
+        return row(line, node.path("username").asText(null), age.asInt(0), node.path("team").asText(null));
+    }
+
+    private ImportRow parseCsv(long line, String text) {
+        List<String> fields = splitCsv(text);
+        if (fields.size() < 2 || fields.size() > 3) {
+            throw new IllegalArgumentException("expected username,age[,team] but got " + fields.size() + " fields");
+        }
+        int age;
+        try {
+            age = fields.get(1).isBlank() ? 0 : Integer.parseInt(fields.get(1).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("age must be an integer: " + fields.get(1));
+        }
+        return row(line, fields.get(0), age, fields.size() == 3 ? fields.get(2) : null);
+    }
+
+    private ImportRow row(long line, String username, int age, String teamName) {
+        if (username == null || username.isBlank()) {
+            throw new IllegalArgumentException("username is required");
+        }
+        if (age < 0) {
+            throw new IllegalArgumentException("age must not be negative");
+        }
+        return new ImportRow(line, username, age, teamName == null || teamName.isBlank() ? null : teamName);
+    }
+
+    private static List<String> splitCsv(String text) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quote");
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,9 @@
+package study.datajpa.invalidation;
+
+// Hibernate 이벤트로는 안 보이는 커밋된 변경을 받아서 로컬 캐시를 비우는 쪽이 구현
+// - 다른 인스턴스의 변경 (InvalidationPoller)
+// - 이 인스턴스에서 JDBC로 직접 바꾼 변경 (JdbcChangeNotifier)
+public interface CacheInvalidationListener {
+
+    void onRemoteChange(ChangeEvent event);
+}
@@ -0,0 +1,17 @@
+package study.datajpa.invalidation;
+
+/**
+ * 다른 인스턴스에 알릴 변경 한 건.
+ * entityId, entityKey가 둘 다 null이면 region 전체가 바뀐 것 (벌크 연산)
+ * entityKey는 부가 정보 (회원이면 username, 상품이면 id) - Bloom filter처럼 값으로 관리하는 캐시용
+ */
+public record ChangeEvent(String region, Long entityId, String entityKey, String nodeId) {
+
+    public static final String MEMBER = "member";
+    public static final String TEAM = "team";
+    public static final String ITEM = "item";
+
+    public boolean isRegionWide() {
+        return entityId == null && entityKey == null;
+    }
+}
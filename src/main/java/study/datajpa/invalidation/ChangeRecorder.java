@@ -0,0 +1,134 @@
+package study.datajpa.invalidation;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.datajpa.entity.Item;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 회원/팀/상품 변경을 트랜잭션(세션) 단위로 모았다가 커밋 직전에 한 번에 변경 피드로 기록.
+ * - 엔티티 변경: Hibernate insert/update/delete 이벤트 (flush 시점)
+ * - 벌크 연산(bulkAgePlus): 엔티티 이벤트가 없으므로 AOP로 잡아서 region 전체 변경으로 기록.
+ *   바깥 트랜잭션 없이 호출됐으면 리포지토리 트랜잭션이 이미 커밋된 뒤라 그 자리에서 바로 기록
+ * - JDBC 직접 쓰기(아카이빙, write-behind): JdbcChangeNotifier가 record(...)로 기록
+ * 기록은 Hibernate의 "커밋 직전" 훅에서 같은 커넥션으로 함 -> 커밋 직전 flush까지 끝난 뒤라 빠지는 변경이 없고,
+ * 비즈니스 변경이 롤백되면 피드도 같이 롤백됨.
+ */
+@Aspect
+@RequiredArgsConstructor
+public class ChangeRecorder implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private final InvalidationTransport transport;
+    private final EntityManagerFactory emf;
+    private final EntityManager em;
+    private final JdbcTemplate jdbcTemplate;
+    private final String nodeId;
+
+    // 세션별로 모으는 중인 변경 (같은 엔티티가 여러 번 바뀌어도 한 건)
+    private final Map<SessionImplementor, Set<ChangeEvent>> pending = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void registerListeners() {
+        EventListenerRegistry registry = emf.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @AfterReturning("this(study.datajpa.repository.MemberRepository) && execution(* bulkAgePlus(..))")
+    public void afterBulkUpdate() {
+        record(ChangeEvent.MEMBER, null, null);
+    }
+
+    // Hibernate 이벤트가 안 생기는 변경(벌크 연산, JDBC 직접 쓰기)을 기록
+    public void record(String region, Long entityId, String entityKey) {
+        ChangeEvent change = new ChangeEvent(region, entityId, entityKey, nodeId);
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            // 로컬 캐시들은 이미 반영했으므로 다른 인스턴스에도 알려야 함
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                transport.publish(connection, List.of(change));
+                return null;
+            });
+            return;
+        }
+        record(em.unwrap(EventSource.class), change);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        record(event.getSession(), event.getEntity(), event.getId());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        record(event.getSession(), event.getEntity(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        record(event.getSession(), event.getEntity(), event.getId());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void record(EventSource session, Object entity, Object id) {
+        if (entity instanceof Member member) {
+            record(session, new ChangeEvent(ChangeEvent.MEMBER, (Long) id, member.getUsername(), nodeId));
+        } else if (entity instanceof Team) {
+            record(session, new ChangeEvent(ChangeEvent.TEAM, (Long) id, null, nodeId));
+        } else if (entity instanceof Item item) {
+            // 상품 id는 문자열이라 entityKey로 보냄
+            record(session, new ChangeEvent(ChangeEvent.ITEM, null, item.getId(), nodeId));
+        }
+    }
+
+    private void record(EventSource session, ChangeEvent change) {
+        pending.computeIfAbsent(session, s -> {
+            // 세션(트랜잭션)마다 처음 한 번만 훅을 등록
+            session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) this::publish);
+            session.getActionQueue().registerProcess(
+                    (AfterTransactionCompletionProcess) (success, completed) -> pending.remove(session));
+            return ConcurrentHashMap.newKeySet();
+        }).add(change);
+    }
+
+    private void publish(SessionImplementor session) {
+        Set<ChangeEvent> changes = pending.remove(session);
+        if (changes == null || changes.isEmpty()) {
+            return;
+        }
+        session.doWork(connection -> transport.publish(connection, changes));
+    }
+}
@@ -0,0 +1,41 @@
+package study.datajpa.invalidation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 인스턴스 간 캐시 무효화. 여러 대로 띄울 때 datajpa.invalidation.enabled=true 로 켬.
+ * 전달 방식은 기본이 DB 테이블 폴링. 바꾸려면 InvalidationTransport 구현을 @Primary 빈으로 등록.
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(InvalidationProperties.class)
+@ConditionalOnProperty(name = "datajpa.invalidation.enabled", havingValue = "true")
+public class InvalidationConfig {
+
+    @Bean(initMethod = "initSchema")
+    public JdbcChangeLogTransport jdbcChangeLogTransport(JdbcTemplate jdbcTemplate, InvalidationProperties properties) {
+        return new JdbcChangeLogTransport(jdbcTemplate, properties.getGapTimeout());
+    }
+
+    @Bean
+    public ChangeRecorder changeRecorder(InvalidationTransport transport, EntityManagerFactory emf, EntityManager em,
+                                         JdbcTemplate jdbcTemplate, InvalidationProperties properties) {
+        return new ChangeRecorder(transport, emf, em, jdbcTemplate, properties.getNodeId());
+    }
+
+    @Bean
+    public InvalidationPoller invalidationPoller(InvalidationTransport transport,
+                                                 ObjectProvider<CacheInvalidationListener> listeners,
+                                                 InvalidationProperties properties, MeterRegistry meterRegistry) {
+        return new InvalidationPoller(transport, listeners, properties, meterRegistry);
+    }
+}
@@ -0,0 +1,64 @@
+package study.datajpa.invalidation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.List;
+
+/**
+ * 변경 피드를 주기적으로 읽어서 로컬 캐시들(CacheInvalidationListener)에 전달.
+ * 자기 노드가 만든 변경은 이미 로컬 커밋 후 리스너들이 처리했으므로 건너뜀.
+ */
+@Slf4j
+public class InvalidationPoller {
+
+    private final InvalidationTransport transport;
+    private final ObjectProvider<CacheInvalidationListener> listeners;
+    private final InvalidationProperties properties;
+    private final Counter received;
+
+    public InvalidationPoller(InvalidationTransport transport, ObjectProvider<CacheInvalidationListener> listeners,
+                              InvalidationProperties properties, MeterRegistry meterRegistry) {
+        this.transport = transport;
+        this.listeners = listeners;
+        this.properties = properties;
+        this.received = meterRegistry.counter("datajpa.invalidation.events", "source", "remote");
+    }
+
+    // Spring 6.1의 fixedDelayString은 ISO-8601(PT1S) 또는 밀리초만 받음 ("1s" 형식은 6.2부터)
+    @Scheduled(fixedDelayString = "${datajpa.invalidation.poll-interval:PT1S}")
+    public int poll() {
+        List<ChangeEvent> events = transport.poll();
+        int applied = 0;
+        for (ChangeEvent event : events) {
+            if (properties.getNodeId().equals(event.nodeId())) {
+                continue;
+            }
+            listeners.orderedStream().forEach(listener -> dispatch(listener, event));
+            applied++;
+        }
+        received.increment(applied);
+        return applied;
+    }
+
+    // retention 주기로 돌리면 행이 retention의 2배까지 남으므로 따로 짧게 돌림 (최대 retention + purge-interval)
+    @Scheduled(fixedDelayString = "${datajpa.invalidation.purge-interval:PT1M}")
+    public void purge() {
+        if (transport instanceof JdbcChangeLogTransport jdbc) {
+            int deleted = jdbc.purge(properties.getRetention());
+            log.debug("purged {} change log rows", deleted);
+        }
+    }
+
+    // 캐시 하나가 실패해도 나머지는 비워야 함
+    private void dispatch(CacheInvalidationListener listener, ChangeEvent event) {
+        try {
+            listener.onRemoteChange(event);
+        } catch (RuntimeException e) {
+            log.warn("cache invalidation failed listener={} event={}", listener.getClass().getSimpleName(), event, e);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package study.datajpa.invalidation;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.UUID;
+
+@Getter @Setter
+@ConfigurationProperties(prefix = "datajpa.invalidation")
+public class InvalidationProperties {
+
+    private boolean enabled = false;
+    // 자기가 만든 변경은 로컬에서 이미 처리했으므로 폴링할 때 이 값으로 거름
+    private String nodeId = UUID.randomUUID().toString();
+    private Duration pollInterval = Duration.ofSeconds(1);
+    // 이 시간 동안 안 채워지는 id는 롤백된 것으로 봄
+    private Duration gapTimeout = Duration.ofSeconds(30);
+    private Duration retention = Duration.ofHours(1);
+    // 오래된 변경 로그를 지우는 주기
+    private Duration purgeInterval = Duration.ofMinutes(1);
+}
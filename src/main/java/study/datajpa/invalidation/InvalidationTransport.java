@@ -0,0 +1,19 @@
+package study.datajpa.invalidation;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 변경 이벤트 전달 방식. 기본은 DB 테이블(JdbcChangeLogTransport).
+ * 메시지 브로커 등으로 바꾸려면 이 인터페이스를 구현한 빈을 등록하면 됨.
+ */
+public interface InvalidationTransport {
+
+    // 변경을 일으킨 트랜잭션의 커넥션으로 기록 -> 비즈니스 변경과 같이 커밋/롤백됨
+    void publish(Connection connection, Collection<ChangeEvent> events) throws SQLException;
+
+    // 아직 안 읽은 이벤트
+    List<ChangeEvent> poll();
+}
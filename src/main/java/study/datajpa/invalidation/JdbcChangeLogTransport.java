@@ -0,0 +1,126 @@
+package study.datajpa.invalidation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * cache_change_log 테이블을 변경 피드로 사용.
+ *
+ * identity id는 insert 순서대로 나오지만 커밋 순서는 다를 수 있음 -> "마지막으로 읽은 id 이후"만 보면
+ * 늦게 커밋된 작은 id를 놓침. 그래서 빈 번호(gap)가 생기면 gapTimeout 동안은 그 앞에서부터 다시 읽고,
+ * 그래도 안 채워지면 롤백된 것으로 보고 넘어감.
+ */
+@Slf4j
+public class JdbcChangeLogTransport implements InvalidationTransport {
+
+    private static final int POLL_LIMIT = 1_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration gapTimeout;
+
+    // 이 id까지는 빠짐없이 처리함
+    private long contiguous;
+    // contiguous 이후로 이미 처리한 id
+    private final TreeSet<Long> seenAhead = new TreeSet<>();
+    // 처음 발견한 빈 번호와 발견 시각
+    private final Map<Long, Long> gapSince = new HashMap<>();
+
+    public JdbcChangeLogTransport(JdbcTemplate jdbcTemplate, Duration gapTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.gapTimeout = gapTimeout;
+    }
+
+    public void initSchema() {
+        jdbcTemplate.execute("create table if not exists cache_change_log (" +
+                "id bigint generated by default as identity primary key, " +
+                "region varchar(50) not null, entity_id bigint, entity_key varchar(255), " +
+                "node_id varchar(64) not null, created_at timestamp not null)");
+        jdbcTemplate.execute("create index if not exists idx_cache_change_log_created_at on cache_change_log (created_at)");
+        // 기동 이전 변경은 볼 필요 없음 (로컬 캐시도 비어서 시작하므로)
+        contiguous = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from cache_change_log", Long.class);
+    }
+
+    @Override
+    public void publish(Connection connection, Collection<ChangeEvent> events) throws SQLException {
+        // created_at은 DB 시계로 -> 노드마다 시계가 달라도 purge 기준이 같음
+        try (PreparedStatement ps = connection.prepareStatement(
+                "insert into cache_change_log (region, entity_id, entity_key, node_id, created_at) values (?, ?, ?, ?, localtimestamp)")) {
+            for (ChangeEvent event : events) {
+                ps.setString(1, event.region());
+                if (event.entityId() != null) {
+                    ps.setLong(2, event.entityId());
+                } else {
+                    ps.setNull(2, Types.BIGINT);
+                }
+                ps.setString(3, event.entityKey());
+                ps.setString(4, event.nodeId());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    @Override
+    public synchronized List<ChangeEvent> poll() {
+        List<ChangeEvent> events = new ArrayList<>();
+        List<Long> ids = new ArrayList<>();
+        jdbcTemplate.query("select id, region, entity_id, entity_key, node_id from cache_change_log" +
+                        " where id > ? order by id limit ?",
+                rs -> {
+                    long id = rs.getLong("id");
+                    if (seenAhead.contains(id)) {
+                        return;
+                    }
+                    ids.add(id);
+                    events.add(new ChangeEvent(rs.getString("region"), rs.getObject("entity_id", Long.class),
+                            rs.getString("entity_key"), rs.getString("node_id")));
+                },
+                contiguous, POLL_LIMIT);
+        seenAhead.addAll(ids);
+        advance();
+        return events;
+    }
+
+    // 오래된 로그 정리. created_at 인덱스로 범위만 지우고, 이 노드가 아직 처리하지 않은 id(contiguous 이후)는 남김
+    public int purge(Duration retention) {
+        return jdbcTemplate.update("delete from cache_change_log" +
+                        " where created_at < dateadd(second, ?, localtimestamp) and id <= ?",
+                -retention.toSeconds(), contiguous());
+    }
+
+    private synchronized long contiguous() {
+        return contiguous;
+    }
+
+    private void advance() {
+        long now = System.currentTimeMillis();
+        while (!seenAhead.isEmpty()) {
+            long next = contiguous + 1;
+            if (seenAhead.remove(next)) {
+                contiguous = next;
+                gapSince.remove(next);
+                continue;
+            }
+            long since = gapSince.computeIfAbsent(next, id -> now);
+            if (now - since < gapTimeout.toMillis()) {
+                break;
+            }
+            // 끝내 안 채워진 번호 = 롤백된 트랜잭션
+            log.debug("change log gap {} skipped", next);
+            gapSince.remove(next);
+            contiguous = next;
+        }
+    }
+}
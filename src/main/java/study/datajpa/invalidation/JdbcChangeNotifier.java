@@ -0,0 +1,64 @@
+package study.datajpa.invalidation;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 아카이빙, write-behind처럼 member를 JDBC로 직접 바꾸는 쪽은 Hibernate 이벤트가 안 생겨서
+ * 로컬 캐시(응답 캐시, 컬럼 스토어)와 다른 인스턴스가 변경을 모름. 바꾼 쪽이 같은 트랜잭션 안에서 여기에 알림.
+ * - 로컬 캐시: 커밋 후 CacheInvalidationListener로 전달 (롤백되면 안 보냄)
+ * - 다른 인스턴스: 변경 피드가 켜져 있으면 같은 트랜잭션으로 기록
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JdbcChangeNotifier {
+
+    // 이보다 많이 바뀌면 행 단위 대신 region 전체 변경으로 보냄 (행마다 다시 읽는 것보다 한 번 전체 적재가 나음)
+    static final int REGION_WIDE_THRESHOLD = 1_000;
+    private static final String LOCAL = "local";
+
+    private final ObjectProvider<CacheInvalidationListener> listeners;
+    private final ObjectProvider<ChangeRecorder> changeRecorder;
+
+    public void membersChanged(Collection<Long> memberIds) {
+        if (memberIds.isEmpty()) {
+            return;
+        }
+        List<ChangeEvent> events = memberIds.size() > REGION_WIDE_THRESHOLD
+                ? List.of(new ChangeEvent(ChangeEvent.MEMBER, null, null, LOCAL))
+                : memberIds.stream().map(id -> new ChangeEvent(ChangeEvent.MEMBER, id, null, LOCAL)).toList();
+
+        changeRecorder.ifAvailable(recorder -> events.forEach(event ->
+                recorder.record(event.region(), event.entityId(), event.entityKey())));
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            dispatch(events);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatch(events);
+            }
+        });
+    }
+
+    // 캐시 하나가 실패해도 나머지는 비워야 함
+    private void dispatch(List<ChangeEvent> events) {
+        listeners.orderedStream().forEach(listener -> events.forEach(event -> {
+            try {
+                listener.onRemoteChange(event);
+            } catch (RuntimeException e) {
+                log.warn("cache invalidation failed listener={} event={}", listener.getClass().getSimpleName(), event, e);
+            }
+        }));
+    }
+}
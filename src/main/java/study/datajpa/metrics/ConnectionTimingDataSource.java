@@ -0,0 +1,82 @@
+package study.datajpa.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 커넥션을 얼마나 기다렸는지(pool wait), 얼마나 쥐고 있었는지(hold)를 엔드포인트별로 기록.
+ * OSIV를 끈 뒤 커넥션이 직렬화 전에 반환되는지 확인하는 용도.
+ */
+public class ConnectionTimingDataSource extends DelegatingDataSource {
+
+    static final String WAIT_METRIC = "datajpa.connection.wait";
+    static final String HOLD_METRIC = "datajpa.connection.hold";
+    static final String NO_ENDPOINT = "none";
+    // 요청 스레드가 아닌 곳(queryExecutor 작업 등)에서는 MDC에 복사해 둔 엔드포인트를 씀
+    public static final String ENDPOINT_MDC_KEY = "endpoint";
+
+    // DataSource가 MeterRegistry보다 먼저 만들어질 수 있어서 처음 쓸 때 꺼냄
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public ConnectionTimingDataSource(DataSource targetDataSource, ObjectProvider<MeterRegistry> meterRegistry) {
+        super(targetDataSource);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        String endpoint = currentEndpoint();
+        long start = System.nanoTime();
+        Connection connection = obtainTargetDataSource().getConnection();
+        long acquired = System.nanoTime();
+        timer(WAIT_METRIC, endpoint).record(acquired - start, TimeUnit.NANOSECONDS);
+        return wrap(connection, endpoint, acquired);
+    }
+
+    private Connection wrap(Connection target, String endpoint, long acquired) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && !target.isClosed()) {
+                        timer(HOLD_METRIC, endpoint).record(System.nanoTime() - acquired, TimeUnit.NANOSECONDS);
+                    }
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+
+    private Timer timer(String name, String endpoint) {
+        return Timer.builder(name)
+                .tag("endpoint", endpoint)
+                .publishPercentileHistogram()
+                .register(meterRegistry.getObject());
+    }
+
+    // 핸들러 매핑이 끝난 뒤라면 "/members/{id}" 같은 패턴이 들어있음 (id별로 태그가 폭발하지 않게)
+    public static String currentEndpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            String endpoint = MDC.get(ENDPOINT_MDC_KEY);
+            return endpoint != null ? endpoint : NO_ENDPOINT;
+        }
+        Object pattern = attributes.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return pattern != null ? pattern.toString() : NO_ENDPOINT;
+    }
+}
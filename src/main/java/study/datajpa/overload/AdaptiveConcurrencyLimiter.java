@@ -0,0 +1,47 @@
+package study.datajpa.overload;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 동시에 실행 중인 호출 수가 한도 이상이면 대기하지 않고 바로 거절.
+ * 한도는 호출이 끝날 때마다 LimitAlgorithm이 다시 계산.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final LimitAlgorithm algorithm;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    public AdaptiveConcurrencyLimiter(LimitAlgorithm algorithm, int initialLimit) {
+        this.algorithm = algorithm;
+        this.limit = initialLimit;
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // tryAcquire가 true였던 호출마다 정확히 한 번
+    public void release(long rttNanos, boolean dropped) {
+        int current = inFlight.getAndDecrement();
+        synchronized (this) {
+            limit = algorithm.update(limit, rttNanos, current, dropped);
+        }
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+}
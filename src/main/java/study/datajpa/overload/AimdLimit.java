@@ -0,0 +1,31 @@
+package study.datajpa.overload;
+
+/**
+ * AIMD: 잘 되면 1씩 늘리고, 타임아웃(또는 기준 시간 초과)이면 비율로 줄임.
+ * 한도의 절반도 안 쓰고 있을 때는 늘리지 않음 (안 쓰는 한도가 끝없이 커지는 것 방지)
+ */
+public class AimdLimit implements LimitAlgorithm {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long timeoutNanos;
+    private final double backoffRatio;
+
+    public AimdLimit(int minLimit, int maxLimit, long timeoutNanos, double backoffRatio) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.timeoutNanos = timeoutNanos;
+        this.backoffRatio = backoffRatio;
+    }
+
+    @Override
+    public int update(int limit, long rttNanos, int inFlight, boolean dropped) {
+        if (dropped || rttNanos > timeoutNanos) {
+            return Math.max(minLimit, (int) (limit * backoffRatio));
+        }
+        if (inFlight * 2 >= limit) {
+            return Math.min(maxLimit, limit + 1);
+        }
+        return limit;
+    }
+}
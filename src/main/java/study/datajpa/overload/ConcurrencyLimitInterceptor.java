@@ -0,0 +1,112 @@
+package study.datajpa.overload;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.sql.SQLTimeoutException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 컨트롤러 핸들러를 엔드포인트 분류별 적응형 동시성 한도로 감쌈.
+ * 트랜잭션(= 커넥션)이 열리기 전인 핸들러 진입 시점에 검사하므로, 한도를 넘는 요청은 커넥션 풀에서
+ * 기다리지 않고 바로 503. DB가 느려지면 한도가 줄어듦.
+ * 쿼리 타임아웃(QueryTimeouts)으로 끝난 요청은 실패로 보고 한도를 더 크게 줄임.
+ *
+ * 메트릭
+ * - datajpa.overload.limit{class}, datajpa.overload.in-flight{class}
+ * - datajpa.overload.calls{class, result=accepted|rejected|dropped}
+ */
+public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+
+    private static final String LIMITER = ConcurrencyLimitInterceptor.class.getName() + ".limiter";
+    private static final String CLASS = ConcurrencyLimitInterceptor.class.getName() + ".class";
+    private static final String START = ConcurrencyLimitInterceptor.class.getName() + ".start";
+
+    private final Map<String, String> classByHandler = new HashMap<>();
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new HashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public ConcurrencyLimitInterceptor(OverloadProperties properties, MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        properties.getEndpointClasses().forEach((endpointClass, handlers) -> {
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(algorithm(properties), properties.getInitialLimit());
+            limiters.put(endpointClass, limiter);
+            handlers.forEach(handler -> classByHandler.put(handler, endpointClass));
+            Gauge.builder("datajpa.overload.limit", limiter, AdaptiveConcurrencyLimiter::limit)
+                    .tag("class", endpointClass).register(meterRegistry);
+            Gauge.builder("datajpa.overload.in-flight", limiter, AdaptiveConcurrencyLimiter::inFlight)
+                    .tag("class", endpointClass).register(meterRegistry);
+        });
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        String endpointClass = classByHandler.get(key(handlerMethod));
+        if (endpointClass == null) {
+            return true;
+        }
+
+        AdaptiveConcurrencyLimiter limiter = limiters.get(endpointClass);
+        if (!limiter.tryAcquire()) {
+            count(endpointClass, "rejected");
+            throw new OverloadedException(endpointClass);
+        }
+        request.setAttribute(LIMITER, limiter);
+        request.setAttribute(CLASS, endpointClass);
+        request.setAttribute(START, System.nanoTime());
+        return true;
+    }
+
+    // 예외로 끝나도 호출됨 (preHandle이 true를 반환한 요청만)
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        AdaptiveConcurrencyLimiter limiter = (AdaptiveConcurrencyLimiter) request.getAttribute(LIMITER);
+        if (limiter == null) {
+            return;
+        }
+        request.removeAttribute(LIMITER);
+        Throwable failure = ex != null ? ex : (Throwable) request.getAttribute(DispatcherServlet.EXCEPTION_ATTRIBUTE);
+        boolean dropped = isTimeout(failure);
+        limiter.release(System.nanoTime() - (Long) request.getAttribute(START), dropped);
+        count((String) request.getAttribute(CLASS), dropped ? "dropped" : "accepted");
+    }
+
+    // 설정 키: "컨트롤러 클래스 이름#메소드 이름" (오버로드는 같은 분류로 묶임)
+    static String key(HandlerMethod handlerMethod) {
+        return handlerMethod.getBeanType().getSimpleName() + "#" + handlerMethod.getMethod().getName();
+    }
+
+    private void count(String endpointClass, String result) {
+        meterRegistry.counter("datajpa.overload.calls", "class", endpointClass, "result", result).increment();
+    }
+
+    // 스프링 예외 변환 전/후 둘 다 확인
+    private static boolean isTimeout(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof QueryTimeoutException
+                    || t instanceof jakarta.persistence.QueryTimeoutException
+                    || t instanceof SQLTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static LimitAlgorithm algorithm(OverloadProperties properties) {
+        if (properties.getAlgorithm() == OverloadProperties.Algorithm.AIMD) {
+            return new AimdLimit(properties.getMinLimit(), properties.getMaxLimit(),
+                    properties.getAimdLatencyThreshold().toNanos(), properties.getAimdBackoffRatio());
+        }
+        return new GradientLimit(properties.getMinLimit(), properties.getMaxLimit());
+    }
+}
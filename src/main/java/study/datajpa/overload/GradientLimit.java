@@ -0,0 +1,46 @@
+package study.datajpa.overload;
+
+/**
+ * 지연 시간 기울기로 한도를 조절 (Netflix concurrency-limits의 Gradient2 방식을 단순화).
+ * - 장기 평균 RTT(부하 없을 때 기준)와 이번 RTT를 비교해서 느려진 만큼 한도를 줄임
+ * - 큐 여유분(sqrt(limit))을 더해서 지연이 그대로면 조금씩 늘어남
+ * - 한 번에 확 바뀌지 않도록 smoothing
+ * 한 limiter 전용 (장기 평균을 상태로 들고 있음). 호출은 limiter가 직렬화해 줌
+ */
+public class GradientLimit implements LimitAlgorithm {
+
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final int LONG_WINDOW = 600;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private double longRtt;
+
+    public GradientLimit(int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    @Override
+    public int update(int limit, long rttNanos, int inFlight, boolean dropped) {
+        if (dropped) {
+            return Math.max(minLimit, limit / 2);
+        }
+        double shortRtt = Math.max(1, rttNanos);
+        longRtt = longRtt == 0 ? shortRtt : longRtt + (shortRtt - longRtt) / LONG_WINDOW;
+        // 지연이 오래 높게 유지되면 그게 새 기준이 되지 않도록 장기 평균도 서서히 내림
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+        // 한도를 반도 안 쓰고 있으면 판단할 근거가 없음
+        if (inFlight < limit / 2) {
+            return limit;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / shortRtt));
+        double target = limit * gradient + Math.sqrt(limit);
+        double next = limit * (1 - SMOOTHING) + target * SMOOTHING;
+        return (int) Math.max(minLimit, Math.min(maxLimit, Math.round(next)));
+    }
+}
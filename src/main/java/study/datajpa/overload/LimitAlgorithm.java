@@ -0,0 +1,13 @@
+package study.datajpa.overload;
+
+// 호출 하나가 끝날 때마다 현재 limit을 받아서 다음 limit을 계산
+public interface LimitAlgorithm {
+
+    /**
+     * @param limit    현재 동시 실행 한도
+     * @param rttNanos 이번 호출에 걸린 시간
+     * @param inFlight 이번 호출을 포함해서 끝나기 직전 동시에 실행 중이던 수
+     * @param dropped  타임아웃 등으로 실패한 호출인지
+     */
+    int update(int limit, long rttNanos, int inFlight, boolean dropped);
+}
@@ -0,0 +1,37 @@
+package study.datajpa.overload;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * 엔드포인트 동시성 제한. 기본은 꺼짐 (datajpa.overload.enabled=true 로 켬)
+ * 초기 한도가 부하 테스트(loadtest) 동시성보다 낮으면 바로 503이 나오므로 켤 때 initial-limit을 같이 맞출 것.
+ */
+@Configuration
+@EnableConfigurationProperties(OverloadProperties.class)
+@ConditionalOnProperty(name = "datajpa.overload.enabled", havingValue = "true")
+public class OverloadConfig implements WebMvcConfigurer {
+
+    private final OverloadProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public OverloadConfig(OverloadProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    public ConcurrencyLimitInterceptor concurrencyLimitInterceptor() {
+        return new ConcurrencyLimitInterceptor(properties, meterRegistry);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(concurrencyLimitInterceptor());
+    }
+}
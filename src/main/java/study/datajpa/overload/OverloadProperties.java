@@ -0,0 +1,31 @@
+package study.datajpa.overload;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Getter @Setter
+@ConfigurationProperties(prefix = "datajpa.overload")
+public class OverloadProperties {
+
+    public enum Algorithm { GRADIENT, AIMD }
+
+    private boolean enabled = false;
+    private Algorithm algorithm = Algorithm.GRADIENT;
+    private int initialLimit = 20;
+    private int minLimit = 2;
+    private int maxLimit = 200;
+    // AIMD: 이보다 오래 걸리면 실패로 보고 한도를 줄임
+    private Duration aimdLatencyThreshold = Duration.ofSeconds(1);
+    private double aimdBackoffRatio = 0.9;
+    // 엔드포인트 분류 -> 핸들러("컨트롤러#메소드"). 분류마다 limiter가 따로 있음 (목록이 느려져도 단건 조회는 살림)
+    private Map<String, List<String>> endpointClasses = new LinkedHashMap<>(Map.of(
+            "list", List.of("MemberController#list", "MemberController#listDto", "MemberController#feed"),
+            "lookup", List.of("MemberController#findMember", "MemberController#findByUsername",
+                    "MemberController#findOneByUsername")));
+}
@@ -0,0 +1,20 @@
+package study.datajpa.overload;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+// 한도 초과 -> 503 + Retry-After. 줄 세우지 않고 바로 돌려보냄
+public class OverloadedException extends ResponseStatusException {
+
+    public OverloadedException(String endpointClass) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, "too many concurrent " + endpointClass + " queries");
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+        return headers;
+    }
+}
@@ -0,0 +1,65 @@
+package study.datajpa.profiler;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// 호출 지점(리포지토리 메소드 + 그걸 부른 코드 위치) 하나의 누적 통계
+class CallSiteStats {
+
+    final String name;
+    final LongAdder calls = new LongAdder();
+    // 이 호출로 로딩된 엔티티 수 (엔티티 이름별)
+    final Map<String, LongAdder> loaded = new ConcurrentHashMap<>();
+    // 이 호출로 로딩된 엔티티에서 나중에 지연 로딩된 수 (연관관계별, 예: Member.team)
+    final Map<String, LongAdder> lazyInitialized = new ConcurrentHashMap<>();
+    final Map<String, Boolean> collection = new ConcurrentHashMap<>();
+    volatile boolean batchFetch;
+
+    CallSiteStats(String name) {
+        this.name = name;
+    }
+
+    void loaded(String entityName) {
+        loaded.computeIfAbsent(entityName, key -> new LongAdder()).increment();
+    }
+
+    void lazyInitialized(String association, boolean isCollection) {
+        collection.putIfAbsent(association, isCollection);
+        lazyInitialized.computeIfAbsent(association, key -> new LongAdder()).increment();
+    }
+
+    long lazyTotal() {
+        return lazyInitialized.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    LazyLoadReport.Site toReport(double threshold, long minCalls) {
+        long callCount = calls.sum();
+        Map<String, Long> lazy = sums(lazyInitialized);
+        StringBuilder recommendation = new StringBuilder();
+        if (callCount >= minCalls) {
+            lazy.forEach((association, count) -> {
+                if ((double) count / callCount < threshold) {
+                    return;
+                }
+                String attribute = association.substring(association.lastIndexOf('.') + 1);
+                if (recommendation.length() > 0) {
+                    recommendation.append("; ");
+                }
+                // ToOne은 페이징과 같이 써도 되는 fetch join/그래프, 컬렉션은 페이징이 깨지므로 배치 페치
+                recommendation.append(Boolean.TRUE.equals(collection.get(association))
+                        ? "batch fetch " + association + " (@BatchSize or default_batch_fetch_size)"
+                        : "@EntityGraph(attributePaths = \"" + attribute + "\")");
+            });
+        }
+        return new LazyLoadReport.Site(name, callCount, sums(loaded), lazy,
+                recommendation.length() == 0 ? null : recommendation.toString(), batchFetch);
+    }
+
+    private static Map<String, Long> sums(Map<String, LongAdder> counters) {
+        Map<String, Long> result = new TreeMap<>();
+        counters.forEach((key, value) -> result.put(key, value.sum()));
+        return result;
+    }
+}
@@ -0,0 +1,28 @@
+package study.datajpa.profiler;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// GET /actuator/lazyloads: 리포트, DELETE: 초기화 (management.endpoints.web.exposure.include에 lazyloads 추가 필요)
+@Component
+@Endpoint(id = "lazyloads")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "datajpa.profiler.enabled", havingValue = "true")
+public class LazyLoadEndpoint {
+
+    private final LazyLoadProfiler profiler;
+
+    @ReadOperation
+    public LazyLoadReport report() {
+        return profiler.report();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        profiler.reset();
+    }
+}
@@ -0,0 +1,262 @@
+package study.datajpa.profiler;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.ClearEvent;
+import org.hibernate.event.spi.ClearEventListener;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEvent;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.EntityType;
+import org.hibernate.type.Type;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 지연 로딩 프로파일러. datajpa.profiler.enabled=true 일 때만 동작 (호출마다 스택을 보므로 운영에서는 잠깐씩 켜서 사용).
+ *
+ * 1. 리포지토리 호출마다 호출 지점(리포지토리 메소드 + 그걸 부른 코드 위치)을 정하고, 그 호출 동안 로딩된 엔티티를 호출 지점에 기록
+ *    - 초기화 안 된 ToOne 참조(프록시)도 같이 기록해 둠
+ * 2. 리포지토리 호출 밖에서(= 애플리케이션 코드가 getter로 건드려서) 그 프록시/컬렉션이 초기화되면 원래 호출 지점의 지연 로딩으로 집계
+ * 3. 호출 1번당 지연 로딩이 threshold 이상이면 N+1로 보고 리포트에 권장 조치를 붙임.
+ *    auto-batch=true 면 그 호출 지점에서 시작하는 트랜잭션 세션에 배치 페치(Session.setFetchBatchSize)를 자동으로 켬
+ *
+ * 리포트: GET /actuator/lazyloads
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE) // 다른 리포지토리 aspect보다 바깥 -> 스택에서 바로 위가 호출한 코드
+@EnableConfigurationProperties(LazyLoadProfilerProperties.class)
+@ConditionalOnProperty(name = "datajpa.profiler.enabled", havingValue = "true")
+public class LazyLoadProfiler implements PostLoadEventListener, InitializeCollectionEventListener, ClearEventListener {
+
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+    private static final String OTHER = "other";
+
+    private final EntityManagerFactory emf;
+    private final EntityManager em;
+    private final LazyLoadProfilerProperties properties;
+
+    private final Map<String, CallSiteStats> sites = new ConcurrentHashMap<>();
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+    // 지금 실행 중인 리포지토리 호출
+    private final ThreadLocal<CallSiteStats> current = new ThreadLocal<>();
+    // 세션별 "이 엔티티/프록시는 어느 호출 지점에서 왔는지". clear되거나 세션이 닫히고 GC되면 같이 사라짐
+    private final Map<Object, SessionTrack> sessions = Collections.synchronizedMap(new WeakHashMap<>());
+
+    public LazyLoadProfiler(EntityManagerFactory emf, EntityManager em, LazyLoadProfilerProperties properties) {
+        this.emf = emf;
+        this.em = em;
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    public void registerListeners() {
+        EventListenerRegistry registry = emf.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_LOAD, this);
+        // 기본 리스너(실제 로딩) 뒤에 붙음
+        registry.appendListeners(EventType.INIT_COLLECTION, this);
+        registry.appendListeners(EventType.CLEAR, this);
+    }
+
+    @Around("this(org.springframework.data.repository.Repository) && execution(* *(..))")
+    public Object track(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (current.get() != null) {
+            return joinPoint.proceed();
+        }
+        CallSiteStats site = site(repositoryName(joinPoint.getThis()) + "." + joinPoint.getSignature().getName()
+                + " <- " + callerFrame());
+        site.calls.increment();
+        // 트랜잭션 밖이면 호출이 끝나면서 세션도 닫히므로 지연 로딩 자체가 불가능 -> 트랜잭션 안에서만 적용
+        if (site.batchFetch && TransactionSynchronizationManager.isActualTransactionActive()) {
+            em.unwrap(Session.class).setFetchBatchSize(properties.getBatchSize());
+        }
+        current.set(site);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            current.remove();
+        }
+    }
+
+    public LazyLoadReport report() {
+        return new LazyLoadReport(sites.values().stream()
+                .sorted(Comparator.comparingLong(CallSiteStats::lazyTotal).reversed())
+                .map(site -> site.toReport(properties.getThreshold(), properties.getMinCalls()))
+                .toList());
+    }
+
+    public void reset() {
+        sites.clear();
+    }
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        EntityPersister persister = event.getPersister();
+        Key key = new Key(persister.getEntityName(), event.getId());
+        SessionTrack track = track(event.getSession());
+        CallSiteStats site = current.get();
+
+        if (site == null) {
+            // 리포지토리 호출 밖에서 로딩 = 어딘가에서 받아온 프록시를 건드린 것
+            Reference reference = track.references.remove(key);
+            if (reference != null) {
+                recordLazy(reference.site(), reference.association(), false);
+                track.owners.put(key, reference.site());
+            }
+            return;
+        }
+
+        site.loaded(simpleName(persister.getEntityName()));
+        track.owners.put(key, site);
+        rememberUninitializedReferences(event, persister, track, site);
+    }
+
+    @Override
+    public void onInitializeCollection(InitializeCollectionEvent event) {
+        if (current.get() != null || event.getAffectedOwnerIdOrNull() == null) {
+            return;
+        }
+        SessionTrack track = track(event.getSession());
+        CallSiteStats site = track.owners.get(new Key(event.getAffectedOwnerEntityName(), event.getAffectedOwnerIdOrNull()));
+        if (site != null) {
+            recordLazy(site, role(event.getCollection().getRole()), true);
+        }
+    }
+
+    // clear 뒤에는 기존 엔티티/프록시가 준영속이라 초기화될 수 없음 -> 세션 추적 정보도 버림
+    // (forEachChunk처럼 청크마다 clear하며 스트리밍하는 세션이 로딩한 행 수만큼 커지지 않게)
+    @Override
+    public void onClear(ClearEvent event) {
+        sessions.remove(event.getSession());
+    }
+
+    // 테스트용: 현재 세션에서 추적 중인 엔티티/참조 수
+    int trackedEntries() {
+        SessionTrack track = sessions.get(em.unwrap(SessionImplementor.class));
+        return track == null ? 0 : track.owners.size() + track.references.size();
+    }
+
+    // 방금 로딩된 엔티티가 들고 있는 초기화 안 된 ToOne 참조 -> 나중에 초기화되면 이 호출 지점 탓
+    private void rememberUninitializedReferences(PostLoadEvent event, EntityPersister persister, SessionTrack track,
+                                                 CallSiteStats site) {
+        EntityEntry entry = event.getSession().getPersistenceContextInternal().getEntry(event.getEntity());
+        if (entry == null || entry.getLoadedState() == null) {
+            return;
+        }
+        Object[] state = entry.getLoadedState();
+        Type[] types = persister.getPropertyTypes();
+        String[] names = persister.getPropertyNames();
+        for (int i = 0; i < types.length; i++) {
+            if (!(types[i] instanceof EntityType entityType) || state[i] == null || Hibernate.isInitialized(state[i])) {
+                continue;
+            }
+            Object id = emf.getPersistenceUnitUtil().getIdentifier(state[i]);
+            if (id != null) {
+                track.references.putIfAbsent(new Key(entityType.getAssociatedEntityName(), id),
+                        new Reference(site, simpleName(persister.getEntityName()) + "." + names[i]));
+            }
+        }
+    }
+
+    private void recordLazy(CallSiteStats site, String association, boolean collection) {
+        site.lazyInitialized(association, collection);
+        if (!properties.isAutoBatch() || site.batchFetch) {
+            return;
+        }
+        long calls = site.calls.sum();
+        if (calls >= properties.getMinCalls() && (double) site.lazyTotal() / calls >= properties.getThreshold()) {
+            site.batchFetch = true;
+            log.warn("N+1 detected at {} (lazy={} calls={}), enabling batch fetch size {}",
+                    site.name, site.lazyTotal(), calls, properties.getBatchSize());
+        }
+    }
+
+    private CallSiteStats site(String name) {
+        CallSiteStats site = sites.get(name);
+        if (site != null) {
+            return site;
+        }
+        if (sites.size() >= properties.getMaxCallSites()) {
+            return sites.computeIfAbsent(OTHER, CallSiteStats::new);
+        }
+        return sites.computeIfAbsent(name, CallSiteStats::new);
+    }
+
+    private SessionTrack track(Object session) {
+        synchronized (sessions) {
+            return sessions.computeIfAbsent(session, key -> new SessionTrack());
+        }
+    }
+
+    // 프록시가 구현한 우리 리포지토리 인터페이스 이름 (findAll처럼 상위 인터페이스에 선언된 메소드도 MemberRepository로 보이게)
+    private String repositoryName(Object proxy) {
+        return repositoryNames.computeIfAbsent(proxy.getClass(), type -> Arrays.stream(type.getInterfaces())
+                .filter(i -> i.getName().startsWith("study.datajpa."))
+                .map(Class::getSimpleName)
+                .findFirst()
+                .orElse(type.getSimpleName()));
+    }
+
+    // 스프링/프록시 프레임을 건너뛴 첫 애플리케이션 코드 위치
+    private static String callerFrame() {
+        return STACK_WALKER.walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith("study.datajpa.")
+                        && !frame.getClassName().startsWith(LazyLoadProfiler.class.getPackageName())
+                        && !frame.getClassName().contains("$$"))
+                .findFirst()
+                .map(frame -> simpleName(frame.getClassName()) + "." + frame.getMethodName() + ":" + frame.getLineNumber())
+                .orElse("unknown"));
+    }
+
+    private static String simpleName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+
+    // study.datajpa.entity.Team.members -> Team.members
+    private static String role(String role) {
+        int attribute = role.lastIndexOf('.');
+        return simpleName(role.substring(0, attribute)) + role.substring(attribute);
+    }
+
+    private record Key(String entityName, Object id) {
+    }
+
+    private record Reference(CallSiteStats site, String association) {
+    }
+
+    // 한 세션(스레드 하나에서만 쓰임) 안의 추적 정보
+    private static class SessionTrack {
+        private final Map<Key, CallSiteStats> owners = new HashMap<>();
+        private final Map<Key, Reference> references = new HashMap<>();
+    }
+}
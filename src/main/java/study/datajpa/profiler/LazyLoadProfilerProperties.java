@@ -0,0 +1,21 @@
+package study.datajpa.profiler;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter @Setter
+@ConfigurationProperties(prefix = "datajpa.profiler")
+public class LazyLoadProfilerProperties {
+
+    private boolean enabled = false;
+    // 기준을 넘은 호출 지점에 세션 단위 배치 페치를 자동으로 켬
+    private boolean autoBatch = false;
+    // 호출 1번당 지연 로딩 평균이 이 값 이상이면 N+1로 봄
+    private double threshold = 5;
+    // 판단하기 전에 최소 이만큼은 호출되어야 함
+    private long minCalls = 10;
+    private int batchSize = 50;
+    // 호출 지점 수 상한 (넘으면 "other"로 모음)
+    private int maxCallSites = 500;
+}
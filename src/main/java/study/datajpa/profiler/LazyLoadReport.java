@@ -0,0 +1,16 @@
+package study.datajpa.profiler;
+
+import java.util.List;
+import java.util.Map;
+
+// 지연 로딩이 많은 호출 지점 순
+public record LazyLoadReport(List<Site> sites) {
+
+    /**
+     * "callSite 호출 calls번에 loaded만큼 읽었고, 그 뒤에 lazyInitialized만큼 지연 로딩이 일어남"
+     * recommendation: 기준을 넘은 연관관계의 권장 조치, batchFetchApplied: 자동 배치 페치 적용 여부
+     */
+    public record Site(String callSite, long calls, Map<String, Long> loaded, Map<String, Long> lazyInitialized,
+                       String recommendation, boolean batchFetchApplied) {
+    }
+}
@@ -0,0 +1,68 @@
+package study.datajpa.repository;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 클라이언트가 ?expand=team 처럼 고른 연관관계만 같이 조회하기 위한 fetch plan.
+ * 허용된 경로만 받음 (Team.members 같은 컬렉션을 열어주면 페이징이 메모리에서 돌게 됨).
+ */
+public final class MemberFetchPlan {
+
+    private static final Set<String> ALLOWED = Set.of("team");
+
+    public static final MemberFetchPlan NONE = new MemberFetchPlan(Set.of());
+
+    private final Set<String> attributePaths;
+
+    private MemberFetchPlan(Set<String> attributePaths) {
+        this.attributePaths = attributePaths;
+    }
+
+    public static MemberFetchPlan of(Collection<String> expand) {
+        if (expand == null || expand.isEmpty()) {
+            return NONE;
+        }
+        Set<String> paths = new TreeSet<>();
+        for (String path : expand) {
+            String trimmed = path.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (!ALLOWED.contains(trimmed)) {
+                throw new IllegalArgumentException("expand not allowed: " + trimmed + " (allowed " + ALLOWED + ")");
+            }
+            paths.add(trimmed);
+        }
+        return paths.isEmpty() ? NONE : new MemberFetchPlan(Set.copyOf(paths));
+    }
+
+    public Set<String> attributePaths() {
+        return attributePaths;
+    }
+
+    public boolean includes(String path) {
+        return attributePaths.contains(path);
+    }
+
+    public boolean isEmpty() {
+        return attributePaths.isEmpty();
+    }
+
+    // 그래프 캐시 키로 쓰이므로 경로 집합 기준으로 비교
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof MemberFetchPlan other && attributePaths.equals(other.attributePaths);
+    }
+
+    @Override
+    public int hashCode() {
+        return attributePaths.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "MemberFetchPlan" + new TreeSet<>(attributePaths);
+    }
+}
@@ -7,6 +7,8 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
 
@@ -14,6 +16,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 // 인터페이스만 잡으면 Spring Data JPA가 구현 클래스를 만들어서 injection 해줌
 // <type, id>
@@ -21,6 +24,7 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
 
     // 도메인에 특화된 검색 조건이 들어가는 경우도 있음
     // JpaRepository interface에 method 존재 안 할 수도
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.LOOKUP))
     List<Member> findByUsername(String username);
 
     List<Member> findByUsernameAndAgeGreaterThan(String username, int age);
@@ -36,16 +40,29 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     @Query("select m.username from Member m")
     List<String> findUsernameList();
 
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.LIST))
     @Query("select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m join m.team t")
     List<MemberDto> findMemberDto();
 
+    // 비동기 버전 - queryExecutor 스레드에서 각자 읽기 전용 트랜잭션으로 실행
+    // 요청마다 불리므로 Pageable로 건수를 제한 (List 반환이라 count 쿼리는 안 나감)
+    @Async("queryExecutor")
+    @Transactional(readOnly = true)
+    @Query("select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m join m.team t")
+    CompletableFuture<List<MemberDto>> findMemberDtoAsync(Pageable pageable);
+
+    @Async("queryExecutor")
+    @Transactional(readOnly = true)
+    @Query("select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t where m.age = :age")
+    CompletableFuture<List<MemberDto>> findMemberDtoAsyncByAge(@Param("age") int age, Pageable pageable);
+
     @Query("select m from Member m where m.username in :names")
     List<Member> findByNames(@Param("names") Collection<String> names);
 
     List<Member> findListByUsername(String username); // 컬렉션
-    Member findMemberByUsername(String username); // 단건
+    // 단건 - findMemberByUsername도 아카이브 fallback 때문에 MemberRepositoryCustom으로 옮김
 
-    Optional<Member> findOptionalByUsername(String username); // 단건 optional
+    // 단건 optional - findOptionalByUsername은 아카이브 fallback 때문에 MemberRepositoryCustom으로 옮김
 
     // 페이징 처리
     // Pagebale 인터페이스 구현체를 넘기면 됨! - 보통 PageRequest를 많이 사용함
@@ -54,6 +71,13 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
             countQuery = "select count(m) from Member m")
     Page<Member> findByAge(int age, Pageable pageable);
 
+    // 무한 스크롤 - Slice는 size + 1개를 조회해서 다음 페이지 유무만 판단 (count 쿼리 X)
+    // offset 대신 마지막으로 본 id(cursor) 이후부터 읽으므로 뒤로 갈수록 느려지지 않음
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.LIST))
+    @Query("select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t" +
+            " where m.id > :cursor order by m.id")
+    Slice<MemberDto> findFeed(@Param("cursor") Long cursor, Pageable pageable);
+
     // 벌크 연산은 db에 있는 거 다 무시하고 쿼리를 날려버림
     // 영.컨에는 변경내용 반영 안 되었으므로 clear()해주어야함
     @Modifying(clearAutomatically = true)
@@ -71,10 +95,17 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     @EntityGraph(attributePaths =  {"team"})
     List<Member> findAll();
 
+    // 페이징도 team을 같이 가져와야 DTO 변환 시 N+1이 안 생김 (ManyToOne이라 페이징 OK)
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.LIST))
+    @Override
+    @EntityGraph(attributePaths = {"team"})
+    Page<Member> findAll(Pageable pageable);
+
     @EntityGraph(attributePaths = {"team"})
     @Query("select m from Member m")
     List<Member> findMemberEntityGraph();
 
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.LOOKUP))
     @EntityGraph(attributePaths = {"team"})
     List<Member> findEntityGraphByUsername(@Param("username") String username);
 
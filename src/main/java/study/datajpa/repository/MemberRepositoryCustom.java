@@ -1,9 +1,37 @@
 package study.datajpa.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import study.datajpa.entity.Member;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface MemberRepositoryCustom {
     List<Member> findMemberCustom();
+
+    // 핫 테이블에 없으면 아카이브(member_archive)까지 찾아봄
+    // 아카이브에서 나온 회원은 영속 상태가 아님 (조회 전용, Member.isArchived() == true, 저장하면 예외)
+    Optional<Member> findById(Long id);
+
+    // 여러 건이면 IncorrectResultSizeDataAccessException
+    Optional<Member> findOptionalByUsername(String username);
+
+    // 없으면 null
+    Member findMemberByUsername(String username);
+
+    // plan에 담긴 연관관계만 entity graph로 같이 조회 (비어 있으면 Member만)
+    Page<Member> findAll(MemberFetchPlan plan, Pageable pageable);
+
+    // 두 번째 페이지부터 content 쿼리와 count 쿼리를 동시에 실행하는 페이징 (ParallelPageExecutor)
+    Page<Member> findAllParallel(MemberFetchPlan plan, Pageable pageable);
+
+    // 전체 회원을 chunkSize 단위로 콜백에 넘김. 청크마다 flush + clear 해서 메모리 일정하게 유지
+    // 트랜잭션 안에서 호출해야 함 (forward-only 커서가 트랜잭션 끝까지 열려 있음)
+    void forEachChunk(int chunkSize, Consumer<List<Member>> callback);
+
+    // commitPerChunk = true 이면 청크마다 새 트랜잭션으로 커밋 (id 기준 키셋 페이징)
+    // 중간에 실패해도 앞 청크는 반영됨
+    void forEachChunk(int chunkSize, boolean commitPerChunk, Consumer<List<Member>> callback);
 }
@@ -2,18 +2,201 @@ package study.datajpa.repository;
 
 import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.ScrollMode;
+import org.hibernate.Session;
+import org.hibernate.graph.RootGraph;
+import org.hibernate.jpa.SpecHints;
+import org.hibernate.ScrollableResults;
+import org.hibernate.query.Query;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 import study.datajpa.entity.Member;
+import study.datajpa.entity.MemberArchive;
+import study.datajpa.entity.Team;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 @RequiredArgsConstructor // final로 선언된 필드를 이용한 생성자 자동 생성
 public class MemberRepositoryImpl implements MemberRepositoryCustom { // 인터페이스 이름 + Impl으로 클래스 이름 맞춰야 함!
 
     private final EntityManager em;
+    private final PlatformTransactionManager transactionManager;
+    private final ParallelPageExecutor parallelPageExecutor;
+    private final Map<MemberFetchPlan, RootGraph<Member>> graphs = new ConcurrentHashMap<>();
 
     @Override
     public List<Member> findMemberCustom() {
         return em.createQuery("select m from Member m")
                 .getResultList();
     }
+
+    // 커스텀 구현에 같은 시그니처가 있으면 SimpleJpaRepository.findById 대신 이게 호출됨
+    @Override
+    public Optional<Member> findById(Long id) {
+        Member member = em.find(Member.class, id);
+        if (member != null) {
+            return Optional.of(member);
+        }
+        return Optional.ofNullable(em.find(MemberArchive.class, id))
+                .map(this::fromArchive);
+    }
+
+    // 파생 쿼리와 같이 여러 건이면 예외 (첫 건을 조용히 고르지 않음)
+    @Override
+    public Optional<Member> findOptionalByUsername(String username) {
+        Optional<Member> member = single(em.createQuery("select m from Member m where m.username = :username", Member.class)
+                .setParameter("username", username)
+                .setHint(QueryTimeouts.HINT, QueryTimeouts.LOOKUP)
+                .getResultList());
+        if (member.isPresent()) {
+            return member;
+        }
+        return single(em.createQuery("select a from MemberArchive a where a.username = :username", MemberArchive.class)
+                .setParameter("username", username)
+                .setHint(QueryTimeouts.HINT, QueryTimeouts.LOOKUP)
+                .getResultList())
+                .map(this::fromArchive);
+    }
+
+    @Override
+    public Member findMemberByUsername(String username) {
+        return findOptionalByUsername(username).orElse(null);
+    }
+
+    private static <T> Optional<T> single(List<T> results) {
+        if (results.size() > 1) {
+            throw new IncorrectResultSizeDataAccessException(1, results.size());
+        }
+        return results.stream().findFirst();
+    }
+
+    @Override
+    public Page<Member> findAll(MemberFetchPlan plan, Pageable pageable) {
+        List<Member> content = membersQuery(plan, pageable).getResultList();
+        return PageableExecutionUtils.getPage(content, pageable, this::countMembers);
+    }
+
+    @Override
+    public Page<Member> findAllParallel(MemberFetchPlan plan, Pageable pageable) {
+        return parallelPageExecutor.getPage(pageable,
+                () -> membersQuery(plan, pageable).getResultList(),
+                this::countMembers);
+    }
+
+    private TypedQuery<Member> membersQuery(MemberFetchPlan plan, Pageable pageable) {
+        TypedQuery<Member> query = em.createQuery(QueryUtils.applySorting("select m from Member m", pageable.getSort(), "m"), Member.class)
+                .setHint(QueryTimeouts.HINT, QueryTimeouts.LIST);
+        if (!plan.isEmpty()) {
+            // fetchgraph: 그래프에 있는 연관관계만 즉시 로딩 (ManyToOne이라 페이징과 같이 써도 OK)
+            query.setHint(SpecHints.HINT_SPEC_FETCH_GRAPH, graph(plan));
+        }
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset())
+                    .setMaxResults(pageable.getPageSize());
+        }
+        return query;
+    }
+
+    private long countMembers() {
+        return em.createQuery("select count(m) from Member m", Long.class)
+                .setHint(QueryTimeouts.HINT, QueryTimeouts.LIST)
+                .getSingleResult();
+    }
+
+    // plan마다 그래프를 한 번만 만들어서 재사용 (불변 복사본이라 여러 세션에서 같이 써도 됨)
+    private RootGraph<Member> graph(MemberFetchPlan plan) {
+        return graphs.computeIfAbsent(plan, key -> {
+            RootGraph<Member> graph = em.unwrap(Session.class).createEntityGraph(Member.class);
+            for (String path : key.attributePaths()) {
+                graph.addAttributeNode(path);
+            }
+            return graph.makeRootGraph(key.toString(), false);
+        });
+    }
+
+    @Override
+    public void forEachChunk(int chunkSize, Consumer<List<Member>> callback) {
+        forEachChunk(chunkSize, false, callback);
+    }
+
+    @Override
+    public void forEachChunk(int chunkSize, boolean commitPerChunk, Consumer<List<Member>> callback) {
+        // 0이면 커서 쪽은 전체가 한 청크가 되고 커밋 쪽은 빈 결과로 그냥 끝남 -> 조용히 틀리지 않게 바로 실패시킴
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        }
+        if (commitPerChunk) {
+            forEachChunkCommitting(chunkSize, callback);
+            return;
+        }
+
+        // getResultList()는 전부 1차 캐시에 올림 -> 커서로 한 건씩 읽고 청크마다 비워줌
+        try (ScrollableResults<Member> results = em.createQuery("select m from Member m", Member.class)
+                .unwrap(Query.class)
+                .setFetchSize(chunkSize)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+            List<Member> chunk = new ArrayList<>(chunkSize);
+            while (results.next()) {
+                chunk.add(results.get());
+                if (chunk.size() == chunkSize) {
+                    handleChunk(chunk, callback);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                handleChunk(chunk, callback);
+            }
+        }
+    }
+
+    // 커밋하면 커서가 닫히므로 커서 대신 id 기준으로 다음 청크를 새로 조회
+    private void forEachChunkCommitting(int chunkSize, Consumer<List<Member>> callback) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        Long lastId = Long.MIN_VALUE;
+        while (lastId != null) {
+            Long from = lastId;
+            lastId = transactionTemplate.execute(status -> {
+                List<Member> chunk = em.createQuery("select m from Member m where m.id > :lastId order by m.id", Member.class)
+                        .setParameter("lastId", from)
+                        .setMaxResults(chunkSize)
+                        .getResultList();
+                if (chunk.isEmpty()) {
+                    return null;
+                }
+                Long last = chunk.get(chunk.size() - 1).getId();
+                callback.accept(chunk);
+                return chunk.size() < chunkSize ? null : last;
+            });
+        }
+    }
+
+    private void handleChunk(List<Member> chunk, Consumer<List<Member>> callback) {
+        callback.accept(chunk);
+        em.flush();
+        em.clear();
+    }
+
+    private Member fromArchive(MemberArchive archive) {
+        Member member = new Member(archive.getUsername(), archive.getAge());
+        member.setId(archive.getId());
+        member.markArchived();
+        if (archive.getTeamId() != null) {
+            member.setTeam(em.getReference(Team.class, archive.getTeamId()));
+        }
+        return member;
+    }
 }
@@ -0,0 +1,71 @@
+package study.datajpa.repository;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * 페이징의 content 쿼리와 count 쿼리를 동시에 실행.
+ * - count는 queryExecutor 스레드에서 별도 읽기 전용 트랜잭션(= 다른 커넥션)으로 content와 같이 시작 (첫 페이지 포함)
+ * - content만으로 전체 건수를 알 수 있으면 (PageableExecutionUtils와 같은 조건) count 결과는 버림
+ *   -> 아직 시작 전이면 count 쿼리 자체가 안 나감
+ *
+ * 호출한 스레드는 이미 커넥션을 하나 물고 있으므로, 커넥션을 아직 못 얻은 count 작업을 기다리면
+ * 풀이 바닥났을 때 서로 기다리다 멈춤. 그래서 count 작업은 커넥션을 얻은 뒤에야 "시작"으로 표시하고,
+ * 그 전이면 호출한 스레드가 작업을 가져와서 자기 트랜잭션에서 직접 실행함 (기다리는 건 이미 시작된 작업뿐).
+ */
+@Component
+public class ParallelPageExecutor {
+
+    private static final int PENDING = 0;
+    private static final int STARTED = 1;
+    private static final int TAKEN = 2;
+
+    private final AsyncTaskExecutor queryExecutor;
+    private final TransactionTemplate readOnlyNewTransaction;
+
+    public ParallelPageExecutor(@Qualifier("queryExecutor") AsyncTaskExecutor queryExecutor,
+                                PlatformTransactionManager transactionManager) {
+        this.queryExecutor = queryExecutor;
+        this.readOnlyNewTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyNewTransaction.setReadOnly(true);
+        this.readOnlyNewTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public <T> Page<T> getPage(Pageable pageable, Supplier<List<T>> content, LongSupplier count) {
+        if (pageable.isUnpaged()) {
+            List<T> all = content.get();
+            return new PageImpl<>(all, pageable, all.size());
+        }
+        AtomicInteger state = new AtomicInteger(PENDING);
+        // 읽기 전용 트랜잭션은 시작할 때 커넥션을 얻으므로 콜백 안이면 커넥션을 쥐고 있는 상태
+        CompletableFuture<Long> total = CompletableFuture.supplyAsync(() -> readOnlyNewTransaction.execute(
+                status -> state.compareAndSet(PENDING, STARTED) ? count.getAsLong() : null), queryExecutor);
+
+        List<T> result = content.get();
+        // 첫 페이지가 size보다 적거나, 다음 페이지가 비지 않았는데 size보다 적으면 전체 건수 = offset + size
+        boolean countNeeded = result.size() >= pageable.getPageSize()
+                || (result.isEmpty() && pageable.getOffset() > 0);
+        if (state.compareAndSet(PENDING, TAKEN)) {
+            // count 작업이 아직 시작 전 -> 필요 없으면 버리고, 필요하면 여기서 직접 실행
+            return new PageImpl<>(result, pageable,
+                    countNeeded ? count.getAsLong() : pageable.getOffset() + result.size());
+        }
+        if (!countNeeded) {
+            return new PageImpl<>(result, pageable, pageable.getOffset() + result.size());
+        }
+        return new PageImpl<>(result, pageable, total.join());
+    }
+}
@@ -0,0 +1,21 @@
+package study.datajpa.repository;
+
+import org.hibernate.jpa.SpecHints;
+
+/**
+ * 메소드별 쿼리 타임아웃 (ms). @QueryHint 값으로 써야 하므로 문자열 상수.
+ * DB가 느려졌을 때 요청 스레드가 끝없이 붙잡혀 있지 않도록 함 (타임아웃 나면 QueryTimeoutException)
+ * em.find(PK 조회)에는 JPA 쿼리 타임아웃 힌트가 적용되지 않음 -> 엔드포인트 동시성 제한(overload 패키지)으로만 보호
+ */
+public final class QueryTimeouts {
+
+    public static final String HINT = SpecHints.HINT_SPEC_QUERY_TIMEOUT;
+
+    // 단건/username 조회
+    public static final String LOOKUP = "1000";
+    // 목록/페이징 조회 (count 포함)
+    public static final String LIST = "3000";
+
+    private QueryTimeouts() {
+    }
+}
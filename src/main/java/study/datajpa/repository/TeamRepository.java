@@ -2,11 +2,14 @@ package study.datajpa.repository;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.entity.Team;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @Repository
 public class TeamRepository {
@@ -39,4 +42,10 @@ public class TeamRepository {
         return em.createQuery("select count(t) from Team t", Long.class)
                 .getSingleResult();
     }
+
+    @Async("queryExecutor")
+    @Transactional(readOnly = true)
+    public CompletableFuture<Long> countAsync() {
+        return CompletableFuture.completedFuture(count());
+    }
 }
@@ -0,0 +1,75 @@
+package study.datajpa.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.singleflight.SingleFlight;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * 인기 username으로 동시에 몰리는 조회를 쿼리(와 트랜잭션) 1번으로 합침.
+ * 목록 조회(findEntityGraphByUsername)와 단건 조회(findOptionalByUsername) 둘 다 여기를 거침.
+ *
+ * 트랜잭션 밖에서 합침: leader만 MemberQueryService의 읽기 전용 트랜잭션을 열고, follower는 커넥션 없이 결과를 기다림.
+ * 엔티티가 아니라 DTO를 나눠주고, MemberDto는 변경 가능하므로 호출한 쪽마다 복사본을 줌.
+ *
+ * 메트릭 datajpa.singleflight.calls{method, result=executed|shared}: shared가 아낀 쿼리 수
+ */
+@Service
+public class MemberLookupService {
+
+    private final MemberQueryService memberQueryService;
+    private final MeterRegistry meterRegistry;
+    private final SingleFlight singleFlight;
+    private final boolean enabled;
+
+    public MemberLookupService(MemberQueryService memberQueryService, MeterRegistry meterRegistry,
+                               @Value("${datajpa.singleflight.enabled:true}") boolean enabled,
+                               @Value("${datajpa.singleflight.window-millis:0}") long windowMillis) {
+        this.memberQueryService = memberQueryService;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.singleFlight = new SingleFlight(windowMillis);
+    }
+
+    // findEntityGraphByUsername
+    public List<MemberDto> findByUsername(String username) {
+        if (!enabled) {
+            return memberQueryService.findByUsername(username);
+        }
+        List<MemberDto> shared = coalesce("findByUsername", username, () -> memberQueryService.findByUsername(username));
+        return shared.stream().map(MemberLookupService::copy).toList();
+    }
+
+    // findOptionalByUsername
+    public Optional<MemberDto> findOneByUsername(String username) {
+        if (!enabled) {
+            return memberQueryService.findOneByUsername(username);
+        }
+        Optional<MemberDto> shared = coalesce("findOneByUsername", username, () -> memberQueryService.findOneByUsername(username));
+        return shared.map(MemberLookupService::copy);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T coalesce(String method, String username, Supplier<T> query) {
+        SingleFlight.Result result;
+        try {
+            result = singleFlight.execute(List.of(method, username), query::get);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+        meterRegistry.counter("datajpa.singleflight.calls", "method", method,
+                "result", result.shared() ? "shared" : "executed").increment();
+        return (T) result.value();
+    }
+
+    private static MemberDto copy(MemberDto dto) {
+        return new MemberDto(dto.getId(), dto.getUsername(), dto.getTeamName());
+    }
+}
@@ -0,0 +1,76 @@
+package study.datajpa.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.SliceResponse;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberFetchPlan;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+// OSIV를 끄면 트랜잭션이 끝나는 순간 커넥션도 반환됨
+// -> 지연 로딩이 필요한 건 전부 이 트랜잭션 안에서 DTO로 바꿔서 나가야 함
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class MemberQueryService {
+
+    private static final int MAX_FEED_SIZE = 100;
+
+    private final MemberRepository memberRepository;
+
+    // true면 content/count 쿼리를 동시에 실행 (커넥션을 요청당 2개 쓰므로 opt-in)
+    @Value("${datajpa.paging.parallel-count:false}")
+    private boolean parallelCount;
+
+    public Page<MemberDto> findMembers(Pageable pageable) {
+        return findMembers(MemberFetchPlan.NONE, pageable);
+    }
+
+    // expand에 team이 있을 때만 team을 같이 조회하고 teamName을 채움 (없으면 join도, 지연 로딩도 X)
+    public Page<MemberDto> findMembers(MemberFetchPlan plan, Pageable pageable) {
+        Page<Member> page = parallelCount
+                ? memberRepository.findAllParallel(plan, pageable)
+                : memberRepository.findAll(plan, pageable);
+        boolean includeTeam = plan.includes("team");
+        return page.map(member -> new MemberDto(member, includeTeam));
+    }
+
+    public SliceResponse<MemberDto> findFeed(Long cursor, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_FEED_SIZE);
+        Slice<MemberDto> slice = memberRepository.findFeed(cursor != null ? cursor : 0L, PageRequest.ofSize(pageSize));
+        return SliceResponse.of(slice, MemberDto::getId);
+    }
+
+    // team을 entity graph로 같이 가져오므로 트랜잭션이 끝난 뒤에도 DTO를 그대로 쓸 수 있음
+    public List<MemberDto> findByUsername(String username) {
+        return memberRepository.findEntityGraphByUsername(username).stream()
+                .map(MemberDto::new)
+                .toList();
+    }
+
+    // 단건 조회 (핫 테이블에 없으면 아카이브까지, 여러 건이면 예외)
+    public Optional<MemberDto> findOneByUsername(String username) {
+        return memberRepository.findOptionalByUsername(username)
+                .map(MemberDto::new);
+    }
+
+    public Optional<MemberDto> findMember(Long id) {
+        return memberRepository.findById(id)
+                .map(MemberDto::new);
+    }
+
+    public Optional<String> findUsername(Long id) {
+        return memberRepository.findById(id)
+                .map(Member::getUsername);
+    }
+}
@@ -0,0 +1,40 @@
+package study.datajpa.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.MemberSummaryDto;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// 서로 독립적인 쿼리 3개를 동시에 던지고 모아서 반환 -> 응답 시간 = 가장 느린 쿼리
+// 여기에 @Transactional을 붙이면 안 됨: 기다리는 동안 요청 스레드가 커넥션을 하나 더 쥐고 있게 됨
+@Service
+@RequiredArgsConstructor
+public class MemberSummaryService {
+
+    private static final long TIMEOUT_SECONDS = 5;
+    // 요약 화면에 보여줄 최대 회원 수 (전체 회원을 매번 읽지 않도록)
+    static final int MEMBER_LIMIT = 100;
+
+    private final MemberRepository memberRepository;
+    private final TeamRepository teamRepository;
+
+    public MemberSummaryDto summary(int age) {
+        PageRequest limit = PageRequest.of(0, MEMBER_LIMIT, Sort.by("id"));
+        CompletableFuture<List<MemberDto>> members = memberRepository.findMemberDtoAsync(limit);
+        CompletableFuture<Long> teamCount = teamRepository.countAsync();
+        CompletableFuture<List<MemberDto>> sameAge = memberRepository.findMemberDtoAsyncByAge(age, limit);
+
+        return CompletableFuture.allOf(members, teamCount, sameAge)
+                .thenApply(ignored -> new MemberSummaryDto(members.join(), teamCount.join(), sameAge.join()))
+                .orTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .join();
+    }
+}
@@ -0,0 +1,30 @@
+package study.datajpa.sessionmetrics;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.JpaTransactionManager;
+
+/**
+ * 세션 통계. 개발 프로필(application-dev.yaml)에서 켜져 있음.
+ * 디버그 헤더는 쿼리/엔티티 수가 응답에 드러나므로 datajpa.session-metrics.debug-header=true 일 때만.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datajpa.session-metrics.enabled", havingValue = "true")
+public class SessionMetricsConfig {
+
+    // 트랜잭션마다 새로 만드는 EntityManager에 리스너를 붙임
+    @Bean
+    public TransactionManagerCustomizer<JpaTransactionManager> sessionMetricsTransactionManagerCustomizer(
+            SessionMetricsRecorder recorder) {
+        return transactionManager -> transactionManager.setEntityManagerInitializer(recorder::attach);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "datajpa.session-metrics.debug-header", havingValue = "true")
+    public FilterRegistrationBean<SessionStatsHeaderFilter> sessionStatsHeaderFilter(SessionMetricsRecorder recorder) {
+        return new FilterRegistrationBean<>(new SessionStatsHeaderFilter(recorder));
+    }
+}
@@ -0,0 +1,105 @@
+package study.datajpa.sessionmetrics;
+
+import org.hibernate.SessionEventListener;
+import org.hibernate.engine.spi.PersistenceContext;
+import org.hibernate.engine.spi.SessionImplementor;
+
+/**
+ * 세션 하나에 붙는 리스너 (세션 = 트랜잭션 하나, 스레드 하나에서만 쓰임).
+ * flush/dirty check 시간은 Hibernate SessionEventListener 콜백으로,
+ * 로딩/clear 수는 SessionMetricsRecorder의 엔티티 이벤트 리스너가 여기 카운터를 올림.
+ */
+class SessionMetricsListener implements SessionEventListener {
+
+    private final SessionImplementor session;
+    private final SessionMetricsRecorder recorder;
+
+    private int managedEntities;
+    private int managedCollections;
+    private int flushes;
+    int autoFlushes;
+    private long flushNanos;
+    private long flushStart;
+    private long dirtyCheckNanos;
+    private long dirtyCheckStart;
+    private int dirtyChecks;
+    private int secondLevelHits;
+    private int secondLevelMisses;
+    int entityLoads;
+    int contextHits;
+    int clears;
+
+    SessionMetricsListener(SessionImplementor session, SessionMetricsRecorder recorder) {
+        this.session = session;
+        this.recorder = recorder;
+    }
+
+    @Override
+    public void flushStart() {
+        flushStart = System.nanoTime();
+    }
+
+    @Override
+    public void flushEnd(int numberOfEntities, int numberOfCollections) {
+        flushes++;
+        flushNanos += System.nanoTime() - flushStart;
+        sample(numberOfEntities, numberOfCollections);
+    }
+
+    // 쿼리 실행 전 자동 flush 검사. 실제로 flush가 안 돼도 매 쿼리마다 불림 -> 시간만 더하고
+    // 횟수는 SessionMetricsRecorder의 AutoFlushEventListener가 isFlushRequired()일 때만 셈
+    // (인자도 둘 다 엔티티 수로 넘어와서 sample()에 쓰지 않음)
+    @Override
+    public void partialFlushStart() {
+        flushStart = System.nanoTime();
+    }
+
+    @Override
+    public void partialFlushEnd(int numberOfEntities, int numberOfCollections) {
+        flushNanos += System.nanoTime() - flushStart;
+    }
+
+    @Override
+    public void dirtyCalculationStart() {
+        dirtyCheckStart = System.nanoTime();
+    }
+
+    @Override
+    public void dirtyCalculationEnd(boolean dirty) {
+        dirtyChecks++;
+        dirtyCheckNanos += System.nanoTime() - dirtyCheckStart;
+    }
+
+    @Override
+    public void cacheGetEnd(boolean hit) {
+        if (hit) {
+            secondLevelHits++;
+        } else {
+            secondLevelMisses++;
+        }
+    }
+
+    // 커밋/롤백 직후에는 아직 영속성 컨텍스트가 남아 있음
+    @Override
+    public void transactionCompletion(boolean successful) {
+        samplePersistenceContext();
+    }
+
+    @Override
+    public void end() {
+        recorder.publish(session, new SessionStats(1, managedEntities, managedCollections, flushes, autoFlushes,
+                flushNanos, dirtyCheckNanos, dirtyChecks, entityLoads, contextHits, secondLevelHits, secondLevelMisses,
+                clears));
+    }
+
+    // clear 직전처럼 컨텍스트가 비워지기 전에도 호출됨
+    void samplePersistenceContext() {
+        PersistenceContext context = session.getPersistenceContextInternal();
+        sample(context.getNumberOfManagedEntities(), context.getCollectionEntriesSize());
+    }
+
+    private void sample(int entities, int collections) {
+        managedEntities = Math.max(managedEntities, entities);
+        managedCollections = Math.max(managedCollections, collections);
+    }
+}
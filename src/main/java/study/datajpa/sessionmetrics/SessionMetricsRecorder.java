@@ -0,0 +1,157 @@
+package study.datajpa.sessionmetrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.EntityKey;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AutoFlushEvent;
+import org.hibernate.event.spi.AutoFlushEventListener;
+import org.hibernate.event.spi.ClearEvent;
+import org.hibernate.event.spi.ClearEventListener;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.LoadEvent;
+import org.hibernate.event.spi.LoadEventListener;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 트랜잭션마다 세션 단위 통계를 모아서 메트릭으로 남김 (datajpa.session-metrics.enabled=true).
+ * 트랜잭션이 시작될 때 JpaTransactionManager가 만든 EntityManager에 SessionMetricsListener를 붙이고(attach),
+ * 세션이 닫힐 때 publish.
+ *
+ * 메트릭
+ * - datajpa.session.managed.entities / managed.collections: 트랜잭션별 영속성 컨텍스트 최대 크기
+ * - datajpa.session.flushes{type=full|auto}: 트랜잭션별 flush 횟수 (auto는 쿼리 전 검사 중 실제로 flush된 것만)
+ * - datajpa.session.flush.time: 트랜잭션별 flush 시간 합
+ * - datajpa.session.dirty-check.time: 트랜잭션별 변경 감지 시간 합
+ * - datajpa.session.loads{source=database|persistence-context|second-level-cache}
+ * - datajpa.session.clears: clear 횟수 (bulkAgePlus의 clearAutomatically 등)
+ */
+@Component
+@ConditionalOnProperty(name = "datajpa.session-metrics.enabled", havingValue = "true")
+public class SessionMetricsRecorder implements LoadEventListener, PostLoadEventListener, ClearEventListener,
+        AutoFlushEventListener {
+
+    private final EntityManagerFactory emf;
+    private final MeterRegistry meterRegistry;
+    private final Map<SessionImplementor, SessionMetricsListener> listeners = Collections.synchronizedMap(new WeakHashMap<>());
+    // 디버그 헤더용: 현재 요청에서 끝난 트랜잭션들의 합계
+    private final ThreadLocal<SessionStats> requestStats = new ThreadLocal<>();
+
+    public SessionMetricsRecorder(EntityManagerFactory emf, MeterRegistry meterRegistry) {
+        this.emf = emf;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void registerListeners() {
+        EventListenerRegistry registry = emf.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        // 기본 리스너보다 먼저 -> 로딩/clear 되기 전 상태를 봄
+        registry.prependListeners(EventType.LOAD, this);
+        registry.prependListeners(EventType.CLEAR, this);
+        registry.appendListeners(EventType.POST_LOAD, this);
+        // 기본 리스너 다음 -> flush가 실제로 필요했는지(isFlushRequired) 결정된 뒤
+        registry.appendListeners(EventType.AUTO_FLUSH, this);
+    }
+
+    public void attach(EntityManager em) {
+        SessionImplementor session = em.unwrap(SessionImplementor.class);
+        listeners.computeIfAbsent(session, key -> {
+            SessionMetricsListener listener = new SessionMetricsListener(key, this);
+            key.addEventListeners(listener);
+            return listener;
+        });
+    }
+
+    public void beginRequest() {
+        requestStats.set(SessionStats.EMPTY);
+    }
+
+    public SessionStats currentRequest() {
+        SessionStats stats = requestStats.get();
+        return stats != null ? stats : SessionStats.EMPTY;
+    }
+
+    public SessionStats endRequest() {
+        SessionStats stats = currentRequest();
+        requestStats.remove();
+        return stats;
+    }
+
+    void publish(SessionImplementor session, SessionStats stats) {
+        listeners.remove(session);
+        DistributionSummary.builder("datajpa.session.managed.entities").register(meterRegistry).record(stats.managedEntities());
+        DistributionSummary.builder("datajpa.session.managed.collections").register(meterRegistry).record(stats.managedCollections());
+        DistributionSummary.builder("datajpa.session.flushes").tag("type", "full").register(meterRegistry).record(stats.flushes());
+        DistributionSummary.builder("datajpa.session.flushes").tag("type", "auto").register(meterRegistry).record(stats.autoFlushes());
+        Timer.builder("datajpa.session.flush.time").register(meterRegistry).record(stats.flushNanos(), TimeUnit.NANOSECONDS);
+        Timer.builder("datajpa.session.dirty-check.time").register(meterRegistry).record(stats.dirtyCheckNanos(), TimeUnit.NANOSECONDS);
+        meterRegistry.counter("datajpa.session.loads", "source", "database").increment(stats.entityLoads());
+        meterRegistry.counter("datajpa.session.loads", "source", "persistence-context").increment(stats.contextHits());
+        meterRegistry.counter("datajpa.session.loads", "source", "second-level-cache").increment(stats.secondLevelHits());
+        meterRegistry.counter("datajpa.session.clears").increment(stats.clears());
+
+        SessionStats request = requestStats.get();
+        if (request != null) {
+            requestStats.set(request.plus(stats));
+        }
+    }
+
+    // find/getReference: 기본 리스너가 로딩하기 전에 영속성 컨텍스트에 이미 있는지 확인
+    @Override
+    public void onLoad(LoadEvent event, LoadType loadType) {
+        SessionMetricsListener listener = listeners.get(event.getSession());
+        if (listener == null || (loadType != LoadEventListener.GET && loadType != LoadEventListener.LOAD)) {
+            return;
+        }
+        EventSource session = event.getSession();
+        EntityPersister persister = session.getFactory().getMappingMetamodel().getEntityDescriptor(event.getEntityClassName());
+        EntityKey key = session.generateEntityKey(event.getEntityId(), persister);
+        if (session.getPersistenceContextInternal().getEntity(key) != null) {
+            listener.contextHits++;
+        }
+    }
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        SessionMetricsListener listener = listeners.get(event.getSession());
+        if (listener != null) {
+            listener.entityLoads++;
+        }
+    }
+
+    // clear로 비워지기 직전 크기도 최대값 후보
+    @Override
+    public void onClear(ClearEvent event) {
+        SessionMetricsListener listener = listeners.get(event.getSession());
+        if (listener != null) {
+            listener.samplePersistenceContext();
+            listener.clears++;
+        }
+    }
+
+    @Override
+    public void onAutoFlush(AutoFlushEvent event) {
+        SessionMetricsListener listener = listeners.get(event.getSession());
+        if (listener != null && event.isFlushRequired()) {
+            listener.autoFlushes++;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package study.datajpa.sessionmetrics;
+
+/**
+ * 트랜잭션(세션) 하나, 또는 요청 하나 동안의 세션 통계 합계.
+ * - managedEntities/managedCollections: 영속성 컨텍스트가 가장 컸을 때 크기
+ * - flushes: 커밋/명시적 flush, autoFlushes: 쿼리 전에 자동으로 일어난 flush
+ * - entityLoads: DB에서 읽어 만든 엔티티, contextHits: find/getReference가 영속성 컨텍스트에서 바로 찾은 수,
+ *   secondLevelHits/Misses: 2차 캐시 (설정한 엔티티만)
+ */
+public record SessionStats(int transactions, int managedEntities, int managedCollections,
+                           int flushes, int autoFlushes, long flushNanos, long dirtyCheckNanos, int dirtyChecks,
+                           int entityLoads, int contextHits, int secondLevelHits, int secondLevelMisses, int clears) {
+
+    public static final SessionStats EMPTY = new SessionStats(0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+
+    public SessionStats plus(SessionStats other) {
+        return new SessionStats(transactions + other.transactions,
+                Math.max(managedEntities, other.managedEntities),
+                Math.max(managedCollections, other.managedCollections),
+                flushes + other.flushes, autoFlushes + other.autoFlushes,
+                flushNanos + other.flushNanos, dirtyCheckNanos + other.dirtyCheckNanos, dirtyChecks + other.dirtyChecks,
+                entityLoads + other.entityLoads, contextHits + other.contextHits,
+                secondLevelHits + other.secondLevelHits, secondLevelMisses + other.secondLevelMisses,
+                clears + other.clears);
+    }
+
+    // 디버그 헤더 값
+    public String toHeaderValue() {
+        return String.format("tx=%d;entities=%d;collections=%d;flushes=%d;autoFlushes=%d;flushMs=%.2f;" +
+                        "dirtyCheckMs=%.2f;loads=%d;contextHits=%d;l2Hits=%d;l2Misses=%d;clears=%d",
+                transactions, managedEntities, managedCollections, flushes, autoFlushes, flushNanos / 1e6,
+                dirtyCheckNanos / 1e6, entityLoads, contextHits, secondLevelHits, secondLevelMisses, clears);
+    }
+}
@@ -0,0 +1,74 @@
+package study.datajpa.sessionmetrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * 개발용: 요청 동안 끝난 트랜잭션들의 세션 통계를 X-ORM-Session 응답 헤더로 붙임.
+ * open-in-view가 꺼져 있어서 본문을 쓰기 시작할 때는 트랜잭션이 다 끝나 있음 -> 본문 쓰기 직전에 헤더를 씀
+ */
+public class SessionStatsHeaderFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-ORM-Session";
+
+    private final SessionMetricsRecorder recorder;
+
+    public SessionStatsHeaderFilter(SessionMetricsRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        recorder.beginRequest();
+        StatsHeaderResponse wrapper = new StatsHeaderResponse(response);
+        try {
+            chain.doFilter(request, wrapper);
+            wrapper.writeHeader(); // 본문이 없는 응답
+        } finally {
+            recorder.endRequest();
+        }
+    }
+
+    private class StatsHeaderResponse extends HttpServletResponseWrapper {
+
+        private boolean written;
+
+        StatsHeaderResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        void writeHeader() {
+            if (!written && !isCommitted()) {
+                written = true;
+                setHeader(HEADER, recorder.currentRequest().toHeaderValue());
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeader();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeader();
+            super.flushBuffer();
+        }
+    }
+}
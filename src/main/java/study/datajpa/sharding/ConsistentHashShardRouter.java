@@ -0,0 +1,50 @@
+package study.datajpa.sharding;
+
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.TreeMap;
+
+/**
+ * member_id 기준 consistent hashing. 샤드마다 가상 노드를 여러 개 링에 올려서 분포를 고르게 함.
+ * 샤드를 추가해도 링에서 옆자리 구간만 옮겨가면 됨.
+ */
+public class ConsistentHashShardRouter implements ShardRouter {
+
+    private static final int VIRTUAL_NODES = 128;
+
+    private final int shardCount;
+    private final TreeMap<Long, Integer> ring = new TreeMap<>();
+
+    public ConsistentHashShardRouter(int shardCount) {
+        this.shardCount = shardCount;
+        for (int shard = 0; shard < shardCount; shard++) {
+            for (int node = 0; node < VIRTUAL_NODES; node++) {
+                ring.put(mix(((long) shard << 32) | node), shard);
+            }
+        }
+    }
+
+    @Override
+    public int shardCount() {
+        return shardCount;
+    }
+
+    @Override
+    public int shardFor(ShardedMember member) {
+        return shardForId(member.id()).getAsInt();
+    }
+
+    @Override
+    public OptionalInt shardForId(long memberId) {
+        Map.Entry<Long, Integer> entry = ring.ceilingEntry(mix(memberId));
+        return OptionalInt.of(entry != null ? entry.getValue() : ring.firstEntry().getValue());
+    }
+
+    // splitmix64 finalizer - 연속된 id도 링 전체에 흩어지게
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,14 @@
+package study.datajpa.sharding;
+
+import java.util.OptionalInt;
+
+public interface ShardRouter {
+
+    int shardCount();
+
+    // 저장할 때 어느 샤드로 갈지
+    int shardFor(ShardedMember member);
+
+    // id만으로 샤드를 알 수 있으면 반환, 모르면 lookup 인덱스를 타야 함
+    OptionalInt shardForId(long memberId);
+}
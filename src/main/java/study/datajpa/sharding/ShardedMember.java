@@ -0,0 +1,5 @@
+package study.datajpa.sharding;
+
+// 샤드에서 읽어온 회원 한 줄. 샤드는 각각 다른 DB라서 JPA 엔티티(연관관계)로는 못 돌려줌
+public record ShardedMember(Long id, String username, int age, Long teamId) {
+}
@@ -0,0 +1,215 @@
+package study.datajpa.sharding;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * Member를 N개의 DB(샤드)에 나눠 저장하는 리파지토리.
+ * - 단건 조회(findById, findByUsername)는 샤드 하나만 조회 (id로 샤드를 모르면 directory DB의 lookup 인덱스 사용)
+ * - 페이징 조회(findAll, findByAge)는 모든 샤드에 병렬로 던지고(scatter) 정렬 키 기준 k-way merge(gather)
+ *
+ * 페이지 n을 구하려면 샤드마다 앞에서부터 (n+1)*size 건을 가져와야 함 -> 뒤 페이지일수록 비쌈.
+ * 깊은 페이지가 필요하면 키셋(커서) 페이징으로 가야 함.
+ */
+public class ShardedMemberRepository {
+
+    private static final RowMapper<ShardedMember> ROW_MAPPER = (rs, rowNum) -> new ShardedMember(
+            rs.getLong("member_id"),
+            rs.getString("username"),
+            rs.getInt("age"),
+            rs.getObject("team_id", Long.class));
+
+    private final List<JdbcTemplate> shards;
+    private final JdbcTemplate directory;
+    private final ShardRouter router;
+    private final Executor executor;
+
+    public ShardedMemberRepository(List<DataSource> shards, DataSource directory, ShardRouter router, Executor executor) {
+        if (shards.size() != router.shardCount()) {
+            throw new IllegalArgumentException("shard count mismatch: " + shards.size() + " datasources, router expects " + router.shardCount());
+        }
+        this.shards = shards.stream().map(JdbcTemplate::new).toList();
+        this.directory = new JdbcTemplate(directory);
+        this.router = router;
+        this.executor = executor;
+    }
+
+    public void initSchema() {
+        directory.execute("create sequence if not exists sharded_member_seq");
+        directory.execute("create table if not exists member_shard_index (" +
+                "member_id bigint primary key, username varchar(255), shard int not null)");
+        directory.execute("create index if not exists idx_member_shard_index_username on member_shard_index (username)");
+        for (JdbcTemplate shard : shards) {
+            shard.execute("create table if not exists member (" +
+                    "member_id bigint primary key, username varchar(255), age int not null, team_id bigint)");
+            shard.execute("create index if not exists idx_member_age on member (age)");
+            shard.execute("create index if not exists idx_member_username on member (username)");
+        }
+    }
+
+    public ShardedMember save(String username, int age, Long teamId) {
+        Long id = directory.queryForObject("select next value for sharded_member_seq", Long.class);
+        ShardedMember member = new ShardedMember(id, username, age, teamId);
+        int shard = router.shardFor(member);
+        // 두 DB에 걸친 트랜잭션은 없으므로 directory를 먼저 씀 -> 중간에 죽으면 "가리키는 행이 없는 인덱스"만 남고
+        // 조회는 그걸 없는 회원으로 취급함 (반대 순서면 directory로 못 찾는 고아 행이 샤드에 남음)
+        directory.update("insert into member_shard_index (member_id, username, shard) values (?, ?, ?)",
+                id, username, shard);
+        try {
+            shards.get(shard).update("insert into member (member_id, username, age, team_id) values (?, ?, ?, ?)",
+                    id, username, age, teamId);
+        } catch (RuntimeException e) {
+            directory.update("delete from member_shard_index where member_id = ?", id);
+            throw e;
+        }
+        return member;
+    }
+
+    public Optional<ShardedMember> findById(Long id) {
+        OptionalInt routed = router.shardForId(id);
+        Integer shard = routed.isPresent()
+                ? Integer.valueOf(routed.getAsInt())
+                : directory.query("select shard from member_shard_index where member_id = ?",
+                        (rs, rowNum) -> rs.getInt(1), id).stream().findFirst().orElse(null);
+        if (shard == null) {
+            return Optional.empty();
+        }
+        return shards.get(shard).query("select * from member where member_id = ?", ROW_MAPPER, id)
+                .stream().findFirst();
+    }
+
+    // directory에만 있고 샤드에 행이 없으면 (save 도중 실패) 결과에서 빠짐
+    public List<ShardedMember> findByUsername(String username) {
+        List<Integer> targets = directory.queryForList(
+                "select distinct shard from member_shard_index where username = ?", Integer.class, username);
+        List<ShardedMember> result = new ArrayList<>();
+        for (Integer shard : targets) {
+            result.addAll(shards.get(shard).query("select * from member where username = ?", ROW_MAPPER, username));
+        }
+        result.sort(Comparator.comparing(ShardedMember::id));
+        return result;
+    }
+
+    public Page<ShardedMember> findAll(Pageable pageable) {
+        return scatterGather("", new Object[0], pageable);
+    }
+
+    public Page<ShardedMember> findByAge(int age, Pageable pageable) {
+        return scatterGather("where age = ?", new Object[]{age}, pageable);
+    }
+
+    private Page<ShardedMember> scatterGather(String where, Object[] args, Pageable pageable) {
+        Sort sort = pageable.getSort().and(Sort.by("id")); // 샤드 간 순서가 항상 같도록 id로 tie-break
+        long fetch = pageable.isPaged() ? pageable.getOffset() + pageable.getPageSize() : Integer.MAX_VALUE;
+        String select = "select * from member " + where + " order by " + orderBy(sort) + " limit " + fetch;
+        String count = "select count(*) from member " + where;
+
+        List<CompletableFuture<List<ShardedMember>>> contents = scatter(shard -> shard.query(select, ROW_MAPPER, args));
+        List<CompletableFuture<Long>> counts = scatter(shard -> shard.queryForObject(count, Long.class, args));
+
+        List<ShardedMember> merged = merge(contents.stream().map(CompletableFuture::join).toList(), comparator(sort),
+                pageable.isPaged() ? pageable.getOffset() : 0,
+                pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE);
+        long total = counts.stream().mapToLong(CompletableFuture::join).sum();
+        return new PageImpl<>(merged, pageable, total);
+    }
+
+    private <T> List<CompletableFuture<T>> scatter(Function<JdbcTemplate, T> query) {
+        return shards.stream()
+                .map(shard -> CompletableFuture.supplyAsync(() -> query.apply(shard), executor))
+                .toList();
+    }
+
+    // 각 샤드 결과는 이미 정렬되어 있으므로 힙에 샤드별 커서를 올려두고 하나씩 꺼냄
+    static List<ShardedMember> merge(List<List<ShardedMember>> sortedRuns, Comparator<ShardedMember> comparator,
+                                     long offset, int limit) {
+        PriorityQueue<Cursor> heap = new PriorityQueue<>((a, b) -> comparator.compare(a.current(), b.current()));
+        for (List<ShardedMember> run : sortedRuns) {
+            if (!run.isEmpty()) {
+                heap.add(new Cursor(run));
+            }
+        }
+        List<ShardedMember> result = new ArrayList<>();
+        long skipped = 0;
+        while (!heap.isEmpty() && result.size() < limit) {
+            Cursor cursor = heap.poll();
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                result.add(cursor.current());
+            }
+            if (cursor.advance()) {
+                heap.add(cursor);
+            }
+        }
+        return result;
+    }
+
+    private static String orderBy(Sort sort) {
+        List<String> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            orders.add(column(order.getProperty()) + (order.isAscending() ? " asc" : " desc"));
+        }
+        return String.join(", ", orders);
+    }
+
+    static Comparator<ShardedMember> comparator(Sort sort) {
+        Comparator<ShardedMember> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<ShardedMember> next = switch (column(order.getProperty())) {
+                case "member_id" -> Comparator.comparing(ShardedMember::id);
+                case "username" -> Comparator.comparing(ShardedMember::username, Comparator.nullsFirst(Comparator.naturalOrder()));
+                case "age" -> Comparator.comparingInt(ShardedMember::age);
+                default -> Comparator.comparing(ShardedMember::teamId, Comparator.nullsFirst(Comparator.naturalOrder()));
+            };
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return comparator;
+    }
+
+    // 정렬 컬럼은 화이트리스트로만 받음 (SQL에 그대로 붙으므로)
+    private static String column(String property) {
+        return switch (property) {
+            case "id" -> "member_id";
+            case "username" -> "username";
+            case "age" -> "age";
+            case "teamId", "team.id" -> "team_id";
+            default -> throw new IllegalArgumentException("unsupported sort property: " + property);
+        };
+    }
+
+    private static class Cursor {
+        private final List<ShardedMember> run;
+        private int index;
+
+        Cursor(List<ShardedMember> run) {
+            this.run = run;
+        }
+
+        ShardedMember current() {
+            return run.get(index);
+        }
+
+        boolean advance() {
+            return ++index < run.size();
+        }
+    }
+}
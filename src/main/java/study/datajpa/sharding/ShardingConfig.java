@@ -0,0 +1,76 @@
+package study.datajpa.sharding;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * datajpa.sharding.enabled=true 일 때만 뜸. 기본 DataSource(JPA용)는 그대로 두고 샤드용 풀을 따로 만듦.
+ * 샤드 DataSource는 빈으로 등록하지 않음 -> DataSource 자동 설정이 꺼지지 않도록.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+@ConditionalOnProperty(name = "datajpa.sharding.enabled", havingValue = "true")
+public class ShardingConfig implements DisposableBean {
+
+    // Executor 타입 빈으로 등록하면 스프링 부트 기본 applicationTaskExecutor가 빠지므로 내부에서만 관리
+    private ExecutorService shardQueryExecutor;
+    // 빈이 아니라서 스프링이 닫아주지 않음 -> destroy()에서 직접 닫음
+    private final List<DataSource> pools = new ArrayList<>();
+
+    @Bean
+    public ShardedMemberRepository shardedMemberRepository(ShardingProperties properties) {
+        shardQueryExecutor = Executors.newFixedThreadPool(Math.max(1, properties.getUrls().size()));
+        List<DataSource> shards = properties.getUrls().stream()
+                .map(url -> dataSource(url, properties))
+                .toList();
+        DataSource directory = properties.getDirectoryUrl() != null
+                ? dataSource(properties.getDirectoryUrl(), properties)
+                : shards.get(0);
+        ShardRouter router = properties.getStrategy() == ShardingProperties.Strategy.HASH
+                ? new ConsistentHashShardRouter(shards.size())
+                : new TeamShardRouter(shards.size());
+
+        ShardedMemberRepository repository = new ShardedMemberRepository(shards, directory, router, shardQueryExecutor);
+        repository.initSchema();
+        return repository;
+    }
+
+    @Override
+    public void destroy() {
+        if (shardQueryExecutor != null) {
+            shardQueryExecutor.shutdown();
+        }
+        for (DataSource pool : pools) {
+            if (pool instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("failed to close shard pool", e);
+                }
+            }
+        }
+        pools.clear();
+    }
+
+    private DataSource dataSource(String url, ShardingProperties properties) {
+        DataSource dataSource = DataSourceBuilder.create()
+                .url(url)
+                .username(properties.getUsername())
+                .password(properties.getPassword())
+                .build();
+        pools.add(dataSource);
+        return dataSource;
+    }
+}
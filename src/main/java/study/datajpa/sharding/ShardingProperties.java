@@ -0,0 +1,24 @@
+package study.datajpa.sharding;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter @Setter
+@ConfigurationProperties(prefix = "datajpa.sharding")
+public class ShardingProperties {
+
+    public enum Strategy { TEAM, HASH }
+
+    private boolean enabled = false;
+    private Strategy strategy = Strategy.TEAM;
+    // 샤드 JDBC url 목록 (index = 샤드 번호)
+    private List<String> urls = new ArrayList<>();
+    // lookup 인덱스를 둘 DB, 비워두면 0번 샤드 사용
+    private String directoryUrl;
+    private String username = "sa";
+    private String password = "";
+}
@@ -0,0 +1,31 @@
+package study.datajpa.sharding;
+
+import java.util.OptionalInt;
+
+/**
+ * team_id로 샤드를 나눔 -> 같은 팀 회원은 한 샤드에 모여서 팀 단위 조회가 샤드 하나로 끝남.
+ * 팀 없는 회원은 0번 샤드.
+ */
+public class TeamShardRouter implements ShardRouter {
+
+    private final int shardCount;
+
+    public TeamShardRouter(int shardCount) {
+        this.shardCount = shardCount;
+    }
+
+    @Override
+    public int shardCount() {
+        return shardCount;
+    }
+
+    @Override
+    public int shardFor(ShardedMember member) {
+        return member.teamId() == null ? 0 : (int) Math.floorMod(member.teamId(), (long) shardCount);
+    }
+
+    @Override
+    public OptionalInt shardForId(long memberId) {
+        return OptionalInt.empty();
+    }
+}
@@ -0,0 +1,64 @@
+package study.datajpa.singleflight;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 같은 키로 동시에 들어온 호출은 먼저 온 호출(leader) 하나만 실제로 실행하고 나머지(follower)는 그 결과를 같이 받음.
+ * window > 0 이면 끝난 결과도 window 동안은 재사용 (짧은 메모이제이션).
+ */
+public class SingleFlight {
+
+    @FunctionalInterface
+    public interface Call {
+        Object call() throws Throwable;
+    }
+
+    public record Result(Object value, boolean shared) {
+    }
+
+    private final ConcurrentHashMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final long windowMillis;
+
+    public SingleFlight(long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    public Result execute(Object key, Call call) throws Throwable {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            try {
+                return new Result(existing.join(), true);
+            } catch (CompletionException e) {
+                throw e.getCause();
+            }
+        }
+
+        try {
+            Object value = call.call();
+            mine.complete(value);
+            return new Result(value, false);
+        } catch (Throwable e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            forget(key, mine);
+        }
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private void forget(Object key, CompletableFuture<Object> future) {
+        if (windowMillis <= 0 || future.isCompletedExceptionally()) {
+            inFlight.remove(key, future);
+            return;
+        }
+        CompletableFuture.delayedExecutor(windowMillis, TimeUnit.MILLISECONDS)
+                .execute(() -> inFlight.remove(key, future));
+    }
+}
@@ -0,0 +1,112 @@
+package study.datajpa.warmup;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.repository.MemberRepository;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 배포 직후 첫 요청들이 느린 문제 -> 트래픽 받기 전에 미리 데움.
+ * ApplicationRunner는 ApplicationReadyEvent(= readiness ACCEPTING_TRAFFIC)보다 먼저 실행되므로
+ * 여기서 끝내면 준비 완료 보고 전에 워밍업이 끝남.
+ *
+ * 기본은 꺼져 있음 (datajpa.warmup.enabled=true 로 켬) -> 테스트 컨텍스트마다 커넥션 풀을 다 빌리지 않도록.
+ *
+ * 1. 커넥션 풀: 커넥션을 한꺼번에 빌렸다가 반납 -> 첫 요청이 커넥션 생성 비용을 안 냄
+ * 2. 대표 쿼리 실행: @Query/파생 쿼리 해석, SQL 실행 경로, H2 prepared statement, JIT까지 데움
+ *    (@Query JPQL 문법 검사는 Spring Data가 기동 때 이미 하므로 따로 파싱만 하는 단계는 두지 않음)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@EnableConfigurationProperties(WarmupProperties.class)
+@ConditionalOnProperty(name = "datajpa.warmup.enabled", havingValue = "true")
+public class StartupWarmup implements ApplicationRunner {
+
+    private final WarmupProperties properties;
+    private final DataSource dataSource;
+    private final EntityManager em;
+    private final MemberRepository memberRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        int connections = warmConnectionPool();
+        if (properties.isRunQueries()) {
+            runRepresentativeQueries();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        meterRegistry.timer("datajpa.warmup.duration").record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("warm-up finished connections={} ranQueries={} elapsed={}ms jvmUptime={}ms",
+                connections, properties.isRunQueries(), TimeUnit.NANOSECONDS.toMillis(elapsed),
+                ManagementFactory.getRuntimeMXBean().getUptime());
+    }
+
+    private int warmConnectionPool() {
+        int target = properties.getConnections();
+        try {
+            if (target <= 0 && dataSource.isWrapperFor(HikariDataSource.class)) {
+                target = dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException e) {
+            log.debug("cannot unwrap HikariDataSource", e);
+        }
+        target = Math.max(1, target);
+
+        // 동시에 들고 있어야 풀이 실제로 target개를 만듦
+        List<Connection> borrowed = new ArrayList<>(target);
+        try {
+            for (int i = 0; i < target; i++) {
+                Connection connection = dataSource.getConnection();
+                connection.isValid(1);
+                borrowed.add(connection);
+            }
+        } catch (SQLException e) {
+            log.warn("connection pool warm-up stopped after {} connections", borrowed.size(), e);
+        } finally {
+            for (Connection connection : borrowed) {
+                try {
+                    connection.close();
+                } catch (SQLException ignored) {
+                }
+            }
+        }
+        return borrowed.size();
+    }
+
+    private void runRepresentativeQueries() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        for (int i = 0; i < properties.getIterations(); i++) {
+            readOnly.executeWithoutResult(status -> {
+                memberRepository.findAll(PageRequest.of(0, 5, Sort.by("username")));
+                memberRepository.findByUsername("warmup");
+                memberRepository.findFeed(0L, PageRequest.ofSize(20));
+                memberRepository.findById(1L);
+                em.clear();
+            });
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package study.datajpa.warmup;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter @Setter
+@ConfigurationProperties(prefix = "datajpa.warmup")
+public class WarmupProperties {
+
+    private boolean enabled = false;
+    // 미리 열어둘 커넥션 수, 0이면 풀 최대 크기만큼
+    private int connections = 0;
+    // 대표 조회 쿼리를 실제로 실행해볼지 (쿼리 해석, JDBC prepared statement, JIT까지 데움)
+    private boolean runQueries = true;
+    private int iterations = 20;
+}
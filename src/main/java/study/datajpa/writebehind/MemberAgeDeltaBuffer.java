@@ -0,0 +1,185 @@
+package study.datajpa.writebehind;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.invalidation.JdbcChangeNotifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 회원 나이 증가분을 모아뒀다가 주기적으로 한 번에 반영하는 write-behind 버퍼.
+ * 같은 회원을 +1 씩 100번 올려도 UPDATE는 "age = age + 100" 한 번만 나감 -> 핫 로우 락 경합 감소.
+ *
+ * - pending: 아직 DB에 안 간 증가분. ConcurrentHashMap.merge는 키가 속한 bin만 잠그므로 (striping) 다른 회원끼리는 경합 X
+ * - inFlight: flush 중인 증가분. 커밋 전까지 읽기에서 빠지지 않도록 따로 들고 있음
+ *   pending -> inFlight 이동과 커밋 후 inFlight 비우기만 쓰기 락으로 묶고, batch UPDATE는 락 밖에서 실행
+ *   (increment는 락을 안 잡음. 읽기도 DB I/O를 기다리지 않음)
+ * - UPDATE 때 last_modified_date도 갱신 -> 증가만 받는 회원이 아카이빙 대상(오래 안 바뀐 회원)으로 잡히지 않게
+ * - 0건 업데이트(이미 아카이빙/삭제된 회원)는 재시도해도 계속 0건이라 한 번에 버리고 datajpa.write-behind.dropped로 셈
+ * - JDBC로 직접 UPDATE하므로 바뀐 회원 id를 JdbcChangeNotifier로 캐시들에 알림
+ * - 종료 시(@PreDestroy) 남은 증가분을 반영. 프로세스가 강제 종료되면 마지막 flush 이후 증가분은 유실될 수 있음
+ */
+@Slf4j
+@Component
+@EnableScheduling
+@ConditionalOnProperty(name = "datajpa.write-behind.enabled", havingValue = "true")
+public class MemberAgeDeltaBuffer {
+
+    private final ConcurrentHashMap<Long, Long> pending = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Long> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong increments = new AtomicLong();
+    private final AtomicLong updates = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcChangeNotifier changeNotifier;
+    private final int batchSize;
+
+    public MemberAgeDeltaBuffer(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                JdbcChangeNotifier changeNotifier, MeterRegistry meterRegistry,
+                                @Value("${datajpa.write-behind.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.changeNotifier = changeNotifier;
+        this.batchSize = batchSize;
+        FunctionCounter.builder("datajpa.write-behind.dropped", dropped, AtomicLong::get)
+                .description("deltas dropped because the member no longer exists")
+                .register(meterRegistry);
+    }
+
+    public void increment(Long memberId, int delta) {
+        pending.merge(memberId, (long) delta, Long::sum);
+        increments.incrementAndGet();
+    }
+
+    // 아직 DB에 반영되지 않은 증가분
+    public long pendingDelta(Long memberId) {
+        lock.readLock().lock();
+        try {
+            return pending.getOrDefault(memberId, 0L) + inFlight.getOrDefault(memberId, 0L);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // DB에서 읽은 값 + 대기 중인 증가분
+    public int currentAge(Member member) {
+        return (int) (member.getAge() + pendingDelta(member.getId()));
+    }
+
+    @Scheduled(fixedDelayString = "${datajpa.write-behind.flush-interval:1000}")
+    public synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        // pending -> inFlight 이동만 쓰기 락으로 묶고, DB I/O는 락 밖에서
+        lock.writeLock().lock();
+        try {
+            detach();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<Object[]> rows = new ArrayList<>(inFlight.size());
+        for (Map.Entry<Long, Long> entry : inFlight.entrySet()) {
+            rows.add(new Object[]{entry.getValue(), entry.getKey()});
+        }
+        List<Long> missing = new ArrayList<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                int[][] counts = jdbcTemplate.batchUpdate(
+                        "update member set age = age + ?, last_modified_date = current_timestamp where member_id = ?",
+                        rows, batchSize,
+                        (ps, row) -> {
+                            ps.setLong(1, (Long) row[0]);
+                            ps.setLong(2, (Long) row[1]);
+                        });
+                List<Long> updated = new ArrayList<>(rows.size());
+                int index = 0;
+                for (int[] batch : counts) {
+                    for (int count : batch) {
+                        Long memberId = (Long) rows.get(index)[1];
+                        (count == 0 ? missing : updated).add(memberId);
+                        index++;
+                    }
+                }
+                changeNotifier.membersChanged(updated);
+            });
+        } catch (RuntimeException e) {
+            // 실패한 증가분은 다시 pending으로 돌려서 다음 flush 때 재시도
+            lock.writeLock().lock();
+            try {
+                inFlight.forEach((memberId, delta) -> pending.merge(memberId, delta, Long::sum));
+                inFlight.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.warn("write-behind flush failed, {} members re-queued", rows.size(), e);
+            return;
+        }
+
+        // 커밋된 증가분을 읽기에서 빼는 것도 락 안에서 (DB 값 + inFlight 이중 계산 구간 최소화)
+        lock.writeLock().lock();
+        try {
+            inFlight.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        updates.addAndGet(rows.size() - missing.size());
+        // 0건 업데이트 = 이미 삭제/아카이빙된 회원. 재시도해도 계속 0건이라 버리고 카운트만
+        if (!missing.isEmpty()) {
+            dropped.addAndGet(missing.size());
+            log.debug("write-behind dropped deltas for missing members {}", missing);
+        }
+    }
+
+    private void detach() {
+        // 키 단위로 원자적으로 떼어냄 -> 떼어낸 뒤 들어온 증가분은 새 엔트리로 쌓여서 다음 flush에 나감
+        for (Long memberId : pending.keySet()) {
+            pending.computeIfPresent(memberId, (id, delta) -> {
+                inFlight.merge(id, delta, Long::sum);
+                return null;
+            });
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+        if (!pending.isEmpty()) {
+            log.error("write-behind shutdown flush left {} members unflushed", pending.size());
+        }
+    }
+
+    // 누적 increment 호출 수 대비 실제 UPDATE 수 -> 얼마나 합쳐졌는지
+    public long incrementCount() {
+        return increments.get();
+    }
+
+    public long updateCount() {
+        return updates.get();
+    }
+
+    public long droppedCount() {
+        return dropped.get();
+    }
+}
@@ -0,0 +1,38 @@
+package study.datajpa.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongIntHashMapTest {
+
+    // 무작위 put/remove를 HashMap과 똑같이 적용해서 결과 비교 (삭제 시 당겨오기, resize 포함)
+    @Test
+    public void behavesLikeHashMap() {
+        LongIntHashMap map = new LongIntHashMap();
+        Map<Long, Integer> expected = new HashMap<>();
+        SplittableRandom random = new SplittableRandom(42);
+
+        for (int i = 0; i < 200_000; i++) {
+            long key = random.nextLong(5_000) * 1024; // 해시 충돌이 나기 쉬운 키
+            if (random.nextInt(3) == 0) {
+                Integer removed = expected.remove(key);
+                assertThat(map.remove(key)).isEqualTo(removed != null ? removed : LongIntHashMap.MISSING);
+            } else {
+                int value = random.nextInt(1_000_000);
+                expected.put(key, value);
+                map.put(key, value);
+            }
+        }
+
+        assertThat(map.size()).isEqualTo(expected.size());
+        for (long key = 0; key < 5_000 * 1024L; key += 1024) {
+            Integer value = expected.get(key);
+            assertThat(map.get(key)).isEqualTo(value != null ? value : LongIntHashMap.MISSING);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package study.datajpa.analytics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.archive.MemberArchiver;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.writebehind.MemberAgeDeltaBuffer;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 커밋된 변경만 컬럼 스토어에 반영되는지 (엔티티 이벤트, 벌크 연산, JDBC 직접 쓰기)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:columnstoresync;DB_CLOSE_DELAY=-1",
+        "datajpa.analytics.enabled=true",
+        "datajpa.write-behind.enabled=true",
+        "datajpa.write-behind.flush-interval=3600000",
+        "datajpa.archive.enabled=true"
+})
+class MemberColumnStoreSyncTest {
+
+    @Autowired MemberColumnStore store;
+    @Autowired MemberColumnStoreSync sync;
+    @Autowired MemberRepository memberRepository;
+    @Autowired MemberAgeDeltaBuffer buffer;
+    @Autowired MemberArchiver memberArchiver;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    TransactionTemplate tx;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        memberRepository.deleteAllInBatch();
+        sync.reload();
+    }
+
+    @Test
+    public void entityChangesAfterCommit() {
+        Member member = memberRepository.save(new Member("synced", 10));
+        assertThat(store.usernameOf(member.getId())).isEqualTo("synced");
+
+        tx.executeWithoutResult(status -> memberRepository.findById(member.getId()).get().setAge(40)); // 변경 감지
+        assertThat(store.countByAgeRange(40, 41)).isEqualTo(1);
+
+        memberRepository.deleteById(member.getId());
+        assertThat(store.usernameOf(member.getId())).isNull();
+        assertThat(store.size()).isZero();
+    }
+
+    @Test
+    public void rolledBackChangeIsNotApplied() {
+        tx.executeWithoutResult(status -> {
+            memberRepository.saveAndFlush(new Member("rolledBackColumn", 10));
+            status.setRollbackOnly();
+        });
+
+        assertThat(store.size()).isZero();
+    }
+
+    @Test
+    public void bulkAgePlusAfterCommit() {
+        memberRepository.save(new Member("young", 10));
+        memberRepository.save(new Member("old", 30));
+
+        tx.executeWithoutResult(status -> {
+            memberRepository.bulkAgePlus(20);
+            assertThat(store.countByAgeRange(31, 32)).isZero(); // 커밋 전에는 그대로
+        });
+
+        assertThat(store.countByAgeRange(31, 32)).isEqualTo(1);
+        assertThat(store.countByAgeRange(10, 11)).isEqualTo(1);
+    }
+
+    @Test
+    public void jdbcWritersKeepStoreInSync() {
+        Member member = memberRepository.save(new Member("jdbcWritten", 10));
+
+        buffer.increment(member.getId(), 5);
+        buffer.flush();
+        assertThat(store.countByAgeRange(15, 16)).isEqualTo(1);
+
+        memberArchiver.archive(LocalDateTime.now().plusDays(1));
+        assertThat(store.usernameOf(member.getId())).isNull();
+        assertThat(store.size()).isZero();
+    }
+}
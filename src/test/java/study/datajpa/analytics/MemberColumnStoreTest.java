@@ -0,0 +1,72 @@
+package study.datajpa.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MemberColumnStoreTest {
+
+    @Test
+    public void aggregations() {
+        MemberColumnStore store = new MemberColumnStore();
+        store.upsert(1L, "member1", 10, 1L);
+        store.upsert(2L, "member2", 20, 1L);
+        store.upsert(3L, "member1", 30, 2L);
+        store.upsert(4L, "member4", 45, null);
+
+        assertThat(store.countByAgeRange(10, 30)).isEqualTo(2);
+        assertThat(store.ageHistogram(10)).containsExactly(0, 1, 1, 1, 1);
+        assertThat(store.countByTeam()).containsEntry(1L, 2L).containsEntry(2L, 1L)
+                .containsEntry(MemberColumnStore.NO_TEAM, 1L);
+        assertThat(store.agePercentileByTeam(50)).containsEntry(1L, 10).containsEntry(2L, 30);
+        assertThat(store.countByUsername("member1")).isEqualTo(2);
+        assertThat(store.distinctUsernames()).isEqualTo(3);
+    }
+
+    @Test
+    public void incrementalChanges() {
+        MemberColumnStore store = new MemberColumnStore();
+        for (long id = 1; id <= 5_000; id++) {
+            store.upsert(id, "member" + id, (int) (id % 50), id % 7);
+        }
+
+        store.upsert(10L, "renamed", 99, 3L);
+        store.delete(1L);
+        store.applyAgePlus(49); // bulkAgePlus(49)와 같은 효과
+
+        assertThat(store.size()).isEqualTo(4_999);
+        assertThat(store.usernameOf(10L)).isEqualTo("renamed");
+        assertThat(store.usernameOf(1L)).isNull();
+        assertThat(store.countByAgeRange(49, 50)).isZero();
+        assertThat(store.countByAgeRange(50, 51)).isEqualTo(100);
+        Map<Long, Long> byTeam = store.countByTeam();
+        assertThat(byTeam.values().stream().mapToLong(Long::longValue).sum()).isEqualTo(4_999);
+    }
+
+    @Test
+    public void histogramRejectsNonPositiveWidth() {
+        MemberColumnStore store = new MemberColumnStore();
+        store.upsert(1L, "member1", 10, null);
+
+        assertThatThrownBy(() -> store.ageHistogram(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void replaceWithSwapsWholeContent() {
+        MemberColumnStore store = new MemberColumnStore();
+        store.upsert(1L, "old", 10, 1L);
+        MemberColumnStore fresh = new MemberColumnStore();
+        fresh.upsert(2L, "new", 20, null);
+        fresh.upsert(3L, "new", 30, null);
+
+        store.replaceWith(fresh);
+
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.usernameOf(1L)).isNull();
+        assertThat(store.usernameOf(2L)).isEqualTo("new");
+        assertThat(store.countByUsername("new")).isEqualTo(2);
+    }
+}
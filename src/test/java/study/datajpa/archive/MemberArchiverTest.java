@@ -0,0 +1,75 @@
+package study.datajpa.archive;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.MemberArchive;
+import study.datajpa.repository.MemberRepository;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "datajpa.archive.enabled=true")
+@Transactional
+class MemberArchiverTest {
+
+    @Autowired MemberArchiver memberArchiver;
+    @Autowired MemberRepository memberRepository;
+    @Autowired EntityManager em;
+
+    @Test
+    public void archiveAndFallback() {
+        //given
+        Member member = memberRepository.save(new Member("archived-member", 30));
+        em.flush();
+        em.clear();
+
+        //when
+        long moved = memberArchiver.archive(LocalDateTime.now().plusDays(1));
+        em.clear();
+
+        //then
+        assertThat(moved).isGreaterThanOrEqualTo(1);
+        assertThat(em.find(Member.class, member.getId())).isNull();
+        assertThat(em.find(MemberArchive.class, member.getId())).isNotNull();
+
+        // 핫 테이블에 없어도 단건 조회는 아카이브에서 찾아줌
+        assertThat(memberRepository.findById(member.getId()))
+                .get().extracting(Member::getUsername).isEqualTo("archived-member");
+        assertThat(memberRepository.findOptionalByUsername("archived-member")).isPresent();
+        assertThat(memberRepository.findMemberByUsername("archived-member")).isNotNull();
+    }
+
+    @Test
+    public void archivedCopyCannotBeSaved() {
+        Member member = memberRepository.save(new Member("archived-readonly", 30));
+        em.flush();
+        em.clear();
+        memberArchiver.archive(LocalDateTime.now().plusDays(1));
+        em.clear();
+
+        Member copy = memberRepository.findById(member.getId()).get();
+
+        assertThat(copy.isArchived()).isTrue();
+        // merge 되면 새 id로 회원이 하나 더 생김
+        assertThatThrownBy(() -> memberRepository.save(copy))
+                .isInstanceOf(InvalidDataAccessApiUsageException.class);
+    }
+
+    @Test
+    public void duplicateUsernameIsNotSilentlyPicked() {
+        memberRepository.save(new Member("duplicated", 10));
+        memberRepository.save(new Member("duplicated", 20));
+        em.flush();
+
+        assertThatThrownBy(() -> memberRepository.findOptionalByUsername("duplicated"))
+                .isInstanceOf(IncorrectResultSizeDataAccessException.class);
+    }
+}
@@ -0,0 +1,70 @@
+package study.datajpa.benchmark;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+import java.util.List;
+
+/**
+ * 영속성 컨텍스트에 엔티티가 N개 있을 때 flush 한 번에 걸리는 시간.
+ * 바이트코드 강화(dirty tracking) 유무 비교: ./gradlew benchmark vs ./gradlew benchmark -PnoEnhancement
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:flushbench;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=1000",
+        "logging.level.org.hibernate.SQL=warn",
+        "decorator.datasource.p6spy.enable-logging=false"
+})
+class FlushBenchmarkTest {
+
+    private static final int ROUNDS = 5;
+
+    @Autowired EntityManager em;
+    @Autowired TransactionTemplate transactionTemplate;
+
+    @ParameterizedTest
+    @ValueSource(ints = {10_000, 100_000})
+    void flushManagedEntities(int count) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Team team = new Team("team");
+            em.persist(team);
+            for (int i = 0; i < count; i++) {
+                // changeTeam()은 team.members 컬렉션까지 건드리므로 FK만 세팅
+                Member member = new Member("member" + i, i % 100);
+                member.setTeam(team);
+                em.persist(member);
+                if (i % 1_000 == 0) {
+                    em.flush();
+                    em.clear();
+                    team = em.getReference(Team.class, team.getId());
+                }
+            }
+            em.flush();
+            em.clear();
+
+            List<Member> members = em.createQuery("select m from Member m", Member.class).getResultList();
+            long best = Long.MAX_VALUE;
+            for (int round = 0; round < ROUNDS; round++) {
+                // 1%만 변경 -> 나머지 99%를 비교하는 비용이 flush 시간 대부분
+                for (int i = round; i < members.size(); i += 100) {
+                    members.get(i).setAge(members.get(i).getAge() + 1);
+                }
+                long start = System.nanoTime();
+                em.flush();
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            System.out.printf("flush with %,d managed members: best of %d = %.2f ms%n",
+                    members.size(), ROUNDS, best / 1e6);
+            status.setRollbackOnly();
+        });
+    }
+}
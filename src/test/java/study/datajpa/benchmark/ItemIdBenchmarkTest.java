@@ -0,0 +1,64 @@
+package study.datajpa.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.datajpa.id.TimeOrderedIdGenerator;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Item PK 방식별 insert 처리량과 테이블+인덱스 크기.
+ * item과 같은 스키마의 테이블을 방식마다 새로 만들어서 같은 건수를 JDBC 배치로 넣음 (JPA 오버헤드는 빼고 키 순서 효과만 봄).
+ * 파일 DB라서 DISK_SPACE_USED가 실제 페이지 사용량을 보여줌
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:file:./build/idbench/items;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.hibernate.ddl-auto=create",
+        "logging.level.org.hibernate.SQL=warn",
+        "decorator.datasource.p6spy.enable-logging=false"
+})
+class ItemIdBenchmarkTest {
+
+    private static final int ROWS = 500_000;
+    private static final int BATCH = 1_000;
+
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"uuid", "time-ordered"})
+    void insertThroughputAndIndexSize(String strategy) {
+        Supplier<String> ids = strategy.equals("uuid")
+                ? () -> UUID.randomUUID().toString()
+                : new TimeOrderedIdGenerator(1, Instant.parse("2024-01-01T00:00:00Z"))::nextId;
+        String table = "item_bench_" + strategy.replace('-', '_');
+        jdbcTemplate.execute("drop table if exists " + table);
+        jdbcTemplate.execute("create table " + table + " (id varchar(255) not null primary key, created_date timestamp(6))");
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        long start = System.nanoTime();
+        for (int done = 0; done < ROWS; done += BATCH) {
+            List<Object[]> rows = new ArrayList<>(BATCH);
+            for (int i = 0; i < BATCH; i++) {
+                rows.add(new Object[]{ids.get(), now});
+            }
+            jdbcTemplate.batchUpdate("insert into " + table + " (id, created_date) values (?, ?)", rows);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        jdbcTemplate.execute("checkpoint");
+        Long bytes = jdbcTemplate.queryForObject("call disk_space_used('" + table.toUpperCase() + "')", Long.class);
+        System.out.printf("%s rows=%d elapsed=%.2fs throughput=%.0f rows/s size=%.1fMB (%.0f bytes/row)%n",
+                strategy, ROWS, seconds, ROWS / seconds, bytes / 1024.0 / 1024.0, (double) bytes / ROWS);
+    }
+}
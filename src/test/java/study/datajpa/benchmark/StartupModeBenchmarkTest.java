@@ -0,0 +1,136 @@
+package study.datajpa.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.jar.JarFile;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 기동 방식별로 별도 JVM을 띄워서 첫 요청 성공까지 걸린 시간과 그 시점의 RSS를 비교.
+ * 먼저 ./gradlew cdsArchive -Paot 로 build/cds/app.jar, app.jsa, app-aot.jsa 를 만들어야 함 (-Paot 없이 만들면 aot 모드는 건너뜀).
+ * 모드마다 새 프로세스라 StartupWarmupBenchmarkTest와 달리 앞 실행의 JIT 이득이 섞이지 않음.
+ */
+@Tag("benchmark")
+class StartupModeBenchmarkTest {
+
+    private static final Path CDS_DIR = Path.of("build", "cds");
+    private static final Path APP_JAR = CDS_DIR.resolve("app.jar");
+    // 학습 실행을 같은 모드로 한 아카이브를 써야 CDS 효과만 비교됨
+    private static final Path ARCHIVE = CDS_DIR.resolve("app.jsa");
+    private static final Path AOT_ARCHIVE = CDS_DIR.resolve("app-aot.jsa");
+    private static final String AOT_INITIALIZER = "study/datajpa/DataJpaApplication__ApplicationContextInitializer.class";
+    private static final int RUNS = 3;
+
+    @ParameterizedTest(name = "cds={0} aot={1}")
+    @CsvSource({"false,false", "true,false", "false,true", "true,true"})
+    void timeToFirstRequest(boolean cds, boolean aot) throws Exception {
+        assumeTrue(Files.exists(APP_JAR), "run ./gradlew cdsArchive first");
+        assumeTrue(!cds || Files.exists(archive(aot)), "CDS archive not found: " + archive(aot));
+        assumeTrue(!aot || hasAotClasses(), "app.jar was built without -Paot");
+
+        long[] millis = new long[RUNS];
+        long[] rssKb = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long[] result = startOnce(cds, aot);
+            millis[i] = result[0];
+            rssKb[i] = result[1];
+        }
+        Arrays.sort(millis);
+        Arrays.sort(rssKb);
+        System.out.printf("cds=%s aot=%s firstRequest median=%dms min=%dms rss median=%dMB%n",
+                cds, aot, millis[RUNS / 2], millis[0], rssKb[RUNS / 2] / 1024);
+    }
+
+    // {첫 요청까지 ms, 그 시점 RSS KB}
+    private long[] startOnce(boolean cds, boolean aot) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (cds) {
+            command.add("-XX:SharedArchiveFile=" + archive(aot));
+        }
+        if (aot) {
+            command.add("-Dspring.aot.enabled=true");
+        }
+        command.addAll(List.of("-jar", APP_JAR.toString(),
+                "--server.port=" + port,
+                "--spring.datasource.url=jdbc:h2:mem:startup;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--logging.level.org.hibernate.SQL=warn",
+                "--decorator.datasource.p6spy.enable-logging=false"));
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/members?page=0&size=1")).build();
+            long deadline = start + Duration.ofSeconds(60).toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("application exited with " + process.exitValue());
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        long elapsed = (System.nanoTime() - start) / 1_000_000;
+                        return new long[]{elapsed, rssKb(process.pid())};
+                    }
+                } catch (IOException notYetListening) {
+                    // 아직 포트가 안 열림
+                }
+                Thread.sleep(10);
+            }
+            throw new IllegalStateException("no successful response within 60s");
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    // 리눅스만 지원. 다른 OS는 -1
+    private long rssKb(long pid) throws IOException {
+        File status = new File("/proc/" + pid + "/status");
+        if (!status.exists()) {
+            return -1;
+        }
+        return Files.readAllLines(status.toPath()).stream()
+                .filter(line -> line.startsWith("VmRSS:"))
+                .map(line -> Long.parseLong(line.replaceAll("\\D", "")))
+                .findFirst()
+                .orElse(-1L);
+    }
+
+    private static Path archive(boolean aot) {
+        return aot ? AOT_ARCHIVE : ARCHIVE;
+    }
+
+    private boolean hasAotClasses() throws IOException {
+        try (JarFile jar = new JarFile(APP_JAR.toFile())) {
+            return jar.getEntry(AOT_INITIALIZER) != null;
+        }
+    }
+
+    private int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package study.datajpa.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.DataJpaApplication;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+/**
+ * 워밍업 설정별 기동 시간과 첫 요청 지연 비교.
+ * 같은 JVM에서 연달아 띄우므로 뒤 실행일수록 JIT 이득을 보는 점은 감안해야 함 (정확히 보려면 모드별로 따로 실행).
+ */
+@Tag("benchmark")
+class StartupWarmupBenchmarkTest {
+
+    private static final String[] ENDPOINTS = {"/members?page=0&size=5", "/membersDto?page=0&size=5", "/members/1", "/members2/1"};
+
+    @ParameterizedTest(name = "warmup={0} runQueries={1}")
+    @CsvSource({"false,false", "true,false", "true,true"})
+    void startupAndFirstRequest(boolean warmup, boolean runQueries) throws Exception {
+        long start = System.nanoTime();
+        ConfigurableApplicationContext context = SpringApplication.run(DataJpaApplication.class,
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:warmup" + warmup + runQueries + ";DB_CLOSE_DELAY=-1",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--logging.level.org.hibernate.SQL=warn",
+                "--decorator.datasource.p6spy.enable-logging=false",
+                "--datajpa.dataload.enabled=true",
+                "--datajpa.dataload.members=1000",
+                "--datajpa.dataload.teams=10",
+                "--datajpa.dataload.items=0",
+                "--datajpa.warmup.enabled=" + warmup,
+                "--datajpa.warmup.run-queries=" + runQueries);
+        long startupMillis = (System.nanoTime() - start) / 1_000_000;
+
+        try {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            HttpClient client = HttpClient.newHttpClient();
+            StringBuilder report = new StringBuilder();
+            for (String endpoint : ENDPOINTS) {
+                report.append(String.format(" %s first=%.1fms second=%.1fms",
+                        endpoint, time(client, baseUrl + endpoint), time(client, baseUrl + endpoint)));
+            }
+            System.out.printf("warmup=%s runQueries=%s startup=%dms%s%n", warmup, runQueries, startupMillis, report);
+        } finally {
+            context.close();
+        }
+    }
+
+    private static double time(HttpClient client, String url) throws Exception {
+        long start = System.nanoTime();
+        client.send(HttpRequest.newBuilder(URI.create(url)).build(), HttpResponse.BodyHandlers.discarding());
+        return (System.nanoTime() - start) / 1e6;
+    }
+}
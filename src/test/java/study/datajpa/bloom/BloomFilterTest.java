@@ -0,0 +1,31 @@
+package study.datajpa.bloom;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    @Test
+    public void noFalseNegativesAndBoundedFalsePositives() {
+        BloomFilter filter = new BloomFilter(100_000, 0.01);
+        for (int i = 0; i < 100_000; i++) {
+            filter.put("member" + i);
+        }
+
+        for (int i = 0; i < 100_000; i++) {
+            assertThat(filter.mightContain("member" + i)).isTrue();
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("unknown" + i)) {
+                falsePositives++;
+            }
+        }
+
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+        assertThat(filter.expectedFalsePositiveRate()).isLessThan(0.02);
+        // 10만 건 / 1% -> 약 117KB
+        assertThat(filter.memoryBytes()).isLessThan(150_000);
+    }
+}
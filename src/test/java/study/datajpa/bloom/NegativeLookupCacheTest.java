@@ -0,0 +1,52 @@
+package study.datajpa.bloom;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bloom;DB_CLOSE_DELAY=-1",
+        "datajpa.bloom.enabled=true",
+        "datajpa.invalidation.enabled=true",
+        "datajpa.invalidation.poll-interval=PT1H"
+})
+class NegativeLookupCacheTest {
+
+    @Autowired NegativeLookupCache cache;
+    @Autowired MemberRepository memberRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    @Test
+    public void insertCommittedDuringRebuildIsNotLost() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            memberRepository.saveAndFlush(new Member("duringRebuild", 10)); // flush 시점 put (building 없음)
+            // 아직 커밋 전이라 다른 커넥션의 재구축 스캔에는 안 보임 -> 새 필터에서 빠짐
+            CompletableFuture.runAsync(cache::rebuild).join();
+        });
+
+        // 커밋 후 다시 넣으므로 교체된 필터에도 있음
+        assertThat(cache.mightContainUsername("duringRebuild")).isTrue();
+        assertThat(memberRepository.findOptionalByUsername("duringRebuild")).isPresent();
+    }
+
+    @Test
+    public void rolledBackInsertIsNotAddedAfterCompletion() {
+        cache.rebuild();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            memberRepository.saveAndFlush(new Member("rolledBackBloom", 10));
+            CompletableFuture.runAsync(cache::rebuild).join();
+            status.setRollbackOnly();
+        });
+
+        assertThat(cache.mightContainUsername("rolledBackBloom")).isFalse();
+        assertThat(memberRepository.findOptionalByUsername("rolledBackBloom")).isEmpty();
+    }
+}
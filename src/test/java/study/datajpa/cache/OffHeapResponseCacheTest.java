@@ -0,0 +1,35 @@
+package study.datajpa.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OffHeapResponseCacheTest {
+
+    @Test
+    public void lruEvictionBySize() {
+        OffHeapResponseCache cache = new OffHeapResponseCache(10, 100);
+        cache.put("a", "12345".getBytes(StandardCharsets.UTF_8), "application/json", cache.generation());
+        cache.put("b", "12345".getBytes(StandardCharsets.UTF_8), "application/json", cache.generation());
+        cache.get("a"); // a가 최근 사용
+        cache.put("c", "12345".getBytes(StandardCharsets.UTF_8), "application/json", cache.generation());
+
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("a")).isNotNull();
+        assertThat(cache.get("c").body().isDirect()).isTrue();
+        assertThat(cache.bytes()).isEqualTo(10);
+    }
+
+    @Test
+    public void staleGenerationIsNotStored() {
+        OffHeapResponseCache cache = new OffHeapResponseCache(1_000, 100);
+        long generation = cache.generation();
+        cache.invalidateAll(); // 조회 도중에 쓰기 발생
+
+        cache.put("a", "stale".getBytes(StandardCharsets.UTF_8), "application/json", generation);
+
+        assertThat(cache.get("a")).isNull();
+    }
+}
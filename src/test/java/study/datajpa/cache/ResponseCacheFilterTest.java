@@ -0,0 +1,47 @@
+package study.datajpa.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "datajpa.response-cache.enabled=true",
+        "spring.data.web.pageable.max-page-size=20"
+})
+class ResponseCacheFilterTest {
+
+    @Autowired FilterRegistrationBean<ResponseCacheFilter> registration;
+
+    @Test
+    public void keyUsesHandlerPageableDefaults() {
+        ResponseCacheFilter filter = registration.getFilter();
+
+        // @PageableDefault(size = 5, sort = "username")와 같은 요청은 전부 같은 키
+        String key = filter.key(request("/members"));
+        assertThat(filter.key(request("/members", "size", "5"))).isEqualTo(key);
+        assertThat(filter.key(request("/members", "sort", "username"))).isEqualTo(key);
+        assertThat(filter.key(request("/members", "page", "0", "size", "5", "sort", "username,asc"))).isEqualTo(key);
+
+        // max-page-size보다 크면 잘려서 같은 키
+        assertThat(filter.key(request("/members", "size", "1000")))
+                .isEqualTo(filter.key(request("/members", "size", "20")));
+        assertThat(filter.key(request("/members", "size", "10"))).isNotEqualTo(key);
+        // /membersDto는 정렬 기본값이 없음
+        assertThat(filter.key(request("/membersDto"))).isEqualTo(filter.key(request("/membersDto", "size", "5")));
+        assertThat(filter.key(request("/members", "expand", "team")))
+                .isNotEqualTo(key)
+                .isEqualTo(filter.key(request("/members", "expand", " team")));
+    }
+
+    private static MockHttpServletRequest request(String path, String... params) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        for (int i = 0; i < params.length; i += 2) {
+            request.addParameter(params[i], params[i + 1]);
+        }
+        return request;
+    }
+}
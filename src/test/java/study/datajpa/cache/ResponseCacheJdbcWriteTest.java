@@ -0,0 +1,56 @@
+package study.datajpa.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.archive.MemberArchiver;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.writebehind.MemberAgeDeltaBuffer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// JDBC로 member를 직접 바꾸는 쪽(write-behind, 아카이빙)도 커밋 후 응답 캐시를 비우는지
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:responsecachejdbc;DB_CLOSE_DELAY=-1",
+        "datajpa.response-cache.enabled=true",
+        "datajpa.write-behind.enabled=true",
+        "datajpa.write-behind.flush-interval=3600000",
+        "datajpa.archive.enabled=true"
+})
+class ResponseCacheJdbcWriteTest {
+
+    @Autowired OffHeapResponseCache cache;
+    @Autowired MemberRepository memberRepository;
+    @Autowired MemberAgeDeltaBuffer buffer;
+    @Autowired MemberArchiver memberArchiver;
+
+    @Test
+    public void writeBehindFlushEvicts() {
+        Member member = memberRepository.save(new Member("cachedAge", 10));
+        cachePage();
+
+        buffer.increment(member.getId(), 1);
+        buffer.flush();
+
+        assertThat(cache.get("/members?page=0")).isNull();
+    }
+
+    @Test
+    public void archivingEvicts() {
+        memberRepository.save(new Member("cachedArchive", 10));
+        cachePage();
+
+        memberArchiver.archive(LocalDateTime.now().plusDays(1));
+
+        assertThat(cache.get("/members?page=0")).isNull();
+    }
+
+    private void cachePage() {
+        cache.put("/members?page=0", "[]".getBytes(StandardCharsets.UTF_8), "application/json", cache.generation());
+        assertThat(cache.get("/members?page=0")).isNotNull();
+    }
+}
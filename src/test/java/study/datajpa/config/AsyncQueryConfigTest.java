@@ -0,0 +1,58 @@
+package study.datajpa.config;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+import study.datajpa.metrics.ConnectionTimingDataSource;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class AsyncQueryConfigTest {
+
+    @Autowired
+    @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    ThreadPoolTaskExecutor applicationTaskExecutor;
+
+    @Autowired
+    @Qualifier("queryExecutor")
+    ThreadPoolTaskExecutor queryExecutor;
+
+    @Test
+    public void defaultExecutorIsNotTheQueryPool() {
+        // 기본 실행기가 queryExecutor로 대체되면 @Async, MVC 비동기 작업이 커넥션 전용 풀을 잡아먹음
+        assertThat(applicationTaskExecutor).isNotSameAs(queryExecutor);
+        assertThat(applicationTaskExecutor.getThreadNamePrefix()).isEqualTo("task-");
+        assertThat(queryExecutor.getThreadNamePrefix()).isEqualTo("query-");
+    }
+
+    @Test
+    public void workerGetsEndpointSnapshotNotTheRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/members/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/members/{id}");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            Future<Object[]> seen = queryExecutor.submit(() -> new Object[]{
+                    RequestContextHolder.getRequestAttributes(),
+                    MDC.get(ConnectionTimingDataSource.ENDPOINT_MDC_KEY)});
+
+            Object[] result = seen.get(5, TimeUnit.SECONDS);
+            // 요청 객체는 넘기지 않고 엔드포인트 값만 복사
+            assertThat(result[0]).isNull();
+            assertThat(result[1]).isEqualTo("/members/{id}");
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+}
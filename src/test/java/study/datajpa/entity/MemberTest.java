@@ -2,6 +2,8 @@ package study.datajpa.entity;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.hibernate.proxy.HibernateProxy;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -78,4 +80,27 @@ class MemberTest {
         System.out.println("findMember.modifiedBy = " + findMember.getLastModifiedBy());
     }
 
+    @Test
+    public void bytecodeEnhancement() {
+        //given
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        Member member = new Member("member1", 10, teamA);
+        em.persist(member);
+        em.flush();
+        em.clear();
+
+        //when
+        Member findMember = em.find(Member.class, member.getId());
+        findMember.setAge(20); // 롬복 setter도 강화된 필드 쓰기를 거침
+
+        //then
+        // 스냅샷 비교 없이 엔티티가 스스로 변경된 필드를 들고 있음
+        assertTrue(findMember instanceof SelfDirtinessTracker);
+        assertArrayEquals(new String[]{"age"}, ((SelfDirtinessTracker) findMember).$$_hibernate_getDirtyAttributes());
+        // LAZY인 team은 HibernateProxy 서브클래스가 아니라 진짜 Team 인스턴스
+        assertFalse(findMember.getTeam() instanceof HibernateProxy);
+        assertEquals(Team.class, findMember.getTeam().getClass());
+    }
+
 }
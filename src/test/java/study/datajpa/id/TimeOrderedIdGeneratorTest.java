@@ -0,0 +1,56 @@
+package study.datajpa.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TimeOrderedIdGeneratorTest {
+
+    private static final Instant EPOCH = Instant.parse("2024-01-01T00:00:00Z");
+
+    @Test
+    public void idsAreSortedAndUnique() {
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(7, EPOCH);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) { // 밀리초당 4096개를 넘겨서 다음 밀리초로 넘어가는 경우 포함
+            ids.add(generator.nextId());
+        }
+
+        assertThat(ids).isSorted();
+        assertThat(new HashSet<>(ids)).hasSize(ids.size());
+        assertThat(ids).allMatch(id -> id.length() == TimeOrderedIdGenerator.LENGTH);
+    }
+
+    @Test
+    public void monotonicWhenClockGoesBackwards() {
+        AtomicLong now = new AtomicLong(EPOCH.toEpochMilli() + 10_000);
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(1, EPOCH, now::get);
+
+        String before = generator.nextId();
+        now.addAndGet(-5_000); // NTP 보정 등
+        String after = generator.nextId();
+
+        assertThat(after).isGreaterThan(before);
+        assertThat(generator.timestampOf(after)).isEqualTo(Instant.ofEpochMilli(EPOCH.toEpochMilli() + 10_000));
+    }
+
+    @Test
+    public void nodeIsPartOfId() {
+        AtomicLong now = new AtomicLong(EPOCH.toEpochMilli() + 1);
+        String a = new TimeOrderedIdGenerator(1, EPOCH, now::get).nextId();
+        String b = new TimeOrderedIdGenerator(2, EPOCH, now::get).nextId();
+
+        assertThat(a).isNotEqualTo(b);
+        assertThat(TimeOrderedIdGenerator.decode(a) >>> TimeOrderedIdGenerator.SEQUENCE_BITS & TimeOrderedIdGenerator.MAX_NODE)
+                .isEqualTo(1);
+        assertThatThrownBy(() -> new TimeOrderedIdGenerator(TimeOrderedIdGenerator.MAX_NODE + 1, EPOCH))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
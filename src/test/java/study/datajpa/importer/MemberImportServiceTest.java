@@ -0,0 +1,111 @@
+package study.datajpa.importer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// 청크마다 커밋하므로 테스트 트랜잭션으로 롤백할 수 없음 -> 별도 메모리 DB 사용
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:import;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create",
+        "datajpa.import.chunk-size=10",
+        "datajpa.import.queue-capacity=1"})
+class MemberImportServiceTest {
+
+    @Autowired MemberImportService memberImportService;
+    @Autowired MemberRepository memberRepository;
+    @Autowired TeamRepository teamRepository;
+
+    @Test
+    public void importNdjsonInChunks() throws Exception {
+        Team team = teamRepository.save(new Team("importTeam"));
+        String body = IntStream.range(0, 95)
+                .mapToObj(i -> "{\"username\":\"ndjson" + i + "\",\"age\":" + i + ",\"team\":\"importTeam\"}")
+                .collect(Collectors.joining("\n"));
+
+        ImportReport report = memberImportService.importMembers(stream(body), ImportFormat.NDJSON);
+
+        assertThat(report.imported()).isEqualTo(95);
+        assertThat(report.failed()).isZero();
+        Member member = memberRepository.findByUsername("ndjson42").get(0);
+        assertThat(member.getAge()).isEqualTo(42);
+        assertThat(memberRepository.findMemberFetchJoin().stream()
+                .filter(m -> m.getUsername().equals("ndjson42"))
+                .findFirst().orElseThrow().getTeam().getId()).isEqualTo(team.getId());
+    }
+
+    @Test
+    public void csvRowErrorsAreReported() throws Exception {
+        String body = """
+                username,age,team
+                csv1,10,
+                "csv, quoted",20
+                csv3,notANumber
+                csv4,30,noSuchTeam
+                ,40
+                """;
+
+        ImportReport report = memberImportService.importMembers(stream(body), ImportFormat.CSV);
+
+        assertThat(report.rowsRead()).isEqualTo(5);
+        assertThat(report.imported()).isEqualTo(2);
+        assertThat(report.failed()).isEqualTo(3);
+        assertThat(report.errors()).extracting(ImportReport.RowError::line).containsExactly(4L, 5L, 6L);
+        assertThat(memberRepository.findByUsername("csv, quoted")).hasSize(1);
+    }
+
+    @Test
+    public void concurrentImportIsRejected() throws Exception {
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // 본문을 읽는 도중에 멈춰 있는 첫 번째 import
+        InputStream slowBody = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                reading.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                return -1;
+            }
+        };
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<ImportReport> first = executor.submit(() -> memberImportService.importMembers(slowBody, ImportFormat.NDJSON));
+        assertThat(reading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> memberImportService.importMembers(stream("{\"username\":\"second\",\"age\":1}"), ImportFormat.NDJSON))
+                .isInstanceOf(ImportInProgressException.class);
+
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS).rowsRead()).isZero();
+        executor.shutdown();
+        // 끝난 뒤에는 다시 받음
+        assertThat(memberImportService.importMembers(stream("{\"username\":\"second\",\"age\":1}"), ImportFormat.NDJSON)
+                .imported()).isEqualTo(1);
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
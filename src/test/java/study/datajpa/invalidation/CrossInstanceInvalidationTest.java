@@ -0,0 +1,111 @@
+package study.datajpa.invalidation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.DataJpaApplication;
+import study.datajpa.bloom.NegativeLookupCache;
+import study.datajpa.cache.OffHeapResponseCache;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 같은 DB를 보는 인스턴스 두 개를 띄워서 한쪽의 쓰기가 다른 쪽 로컬 캐시를 비우는지 확인.
+ * 폴링 주기를 길게 잡고 poll()을 직접 호출함.
+ */
+class CrossInstanceInvalidationTest {
+
+    private ConfigurableApplicationContext nodeA;
+    private ConfigurableApplicationContext nodeB;
+
+    @BeforeEach
+    void start() {
+        nodeA = startNode("a");
+        nodeB = startNode("b");
+    }
+
+    @AfterEach
+    void stop() {
+        nodeB.close();
+        nodeA.close();
+    }
+
+    @Test
+    public void entityChangeEvictsOtherNode() {
+        OffHeapResponseCache cacheB = nodeB.getBean(OffHeapResponseCache.class);
+        cacheB.put("/members?page=0", "[]".getBytes(StandardCharsets.UTF_8), "application/json", cacheB.generation());
+        assertThat(nodeB.getBean(NegativeLookupCache.class).mightContainUsername("remoteMember")).isFalse();
+
+        nodeA.getBean(MemberRepository.class).save(new Member("remoteMember", 10));
+        int applied = nodeB.getBean(InvalidationPoller.class).poll();
+
+        assertThat(applied).isEqualTo(1);
+        assertThat(cacheB.get("/members?page=0")).isNull();
+        assertThat(nodeB.getBean(NegativeLookupCache.class).mightContainUsername("remoteMember")).isTrue();
+        // 자기 변경은 다시 받지 않음
+        assertThat(nodeA.getBean(InvalidationPoller.class).poll()).isZero();
+    }
+
+    @Test
+    public void bulkUpdateEvictsOtherNode() {
+        OffHeapResponseCache cacheB = nodeB.getBean(OffHeapResponseCache.class);
+        nodeB.getBean(InvalidationPoller.class).poll(); // 앞선 변경은 비워둠
+        cacheB.put("/members?page=0", "[]".getBytes(StandardCharsets.UTF_8), "application/json", cacheB.generation());
+
+        MemberRepository memberRepository = nodeA.getBean(MemberRepository.class);
+        new TransactionTemplate(nodeA.getBean(PlatformTransactionManager.class))
+                .executeWithoutResult(status -> memberRepository.bulkAgePlus(0));
+
+        assertThat(nodeB.getBean(InvalidationPoller.class).poll()).isEqualTo(1);
+        assertThat(cacheB.get("/members?page=0")).isNull();
+    }
+
+    @Test
+    public void bulkUpdateWithoutTransactionEvictsOtherNode() {
+        OffHeapResponseCache cacheB = nodeB.getBean(OffHeapResponseCache.class);
+        nodeB.getBean(InvalidationPoller.class).poll();
+        cacheB.put("/members?page=0", "[]".getBytes(StandardCharsets.UTF_8), "application/json", cacheB.generation());
+
+        // 리포지토리 자체 트랜잭션으로만 실행 -> 애스펙트 시점엔 이미 커밋됨
+        nodeA.getBean(MemberRepository.class).bulkAgePlus(0);
+
+        assertThat(nodeB.getBean(InvalidationPoller.class).poll()).isEqualTo(1);
+        assertThat(cacheB.get("/members?page=0")).isNull();
+    }
+
+    @Test
+    public void rolledBackChangeIsNotPublished() {
+        nodeB.getBean(InvalidationPoller.class).poll();
+
+        MemberRepository memberRepository = nodeA.getBean(MemberRepository.class);
+        new TransactionTemplate(nodeA.getBean(PlatformTransactionManager.class))
+                .executeWithoutResult(status -> {
+                    memberRepository.saveAndFlush(new Member("rolledBack", 10));
+                    status.setRollbackOnly();
+                });
+
+        assertThat(nodeB.getBean(InvalidationPoller.class).poll()).isZero();
+    }
+
+    private ConfigurableApplicationContext startNode(String nodeId) {
+        return SpringApplication.run(DataJpaApplication.class,
+                "--spring.main.web-application-type=none",
+                "--spring.datasource.url=jdbc:h2:mem:invalidation;DB_CLOSE_DELAY=-1",
+                "--logging.level.org.hibernate.SQL=warn",
+                "--decorator.datasource.p6spy.enable-logging=false",
+                "--datajpa.response-cache.enabled=true",
+                "--datajpa.invalidation.enabled=true",
+                "--datajpa.bloom.enabled=true",
+                "--datajpa.invalidation.node-id=" + nodeId,
+                "--datajpa.invalidation.poll-interval=PT1H",
+                "--datajpa.invalidation.purge-interval=PT1H");
+    }
+}
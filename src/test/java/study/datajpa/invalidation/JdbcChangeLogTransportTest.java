@@ -0,0 +1,57 @@
+package study.datajpa.invalidation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JdbcChangeLogTransportTest {
+
+    JdbcTemplate jdbcTemplate;
+    JdbcChangeLogTransport transport;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        transport = new JdbcChangeLogTransport(jdbcTemplate, Duration.ofSeconds(30));
+        transport.initSchema();
+    }
+
+    @Test
+    public void purgeKeepsUnprocessedRows() {
+        publish(new ChangeEvent(ChangeEvent.MEMBER, 1L, null, "other"));
+        assertThat(transport.poll()).hasSize(1);
+        // 아직 poll 하지 않은 행
+        publish(new ChangeEvent(ChangeEvent.MEMBER, 2L, null, "other"));
+        jdbcTemplate.update("update cache_change_log set created_at = dateadd(hour, -2, localtimestamp)");
+
+        int deleted = transport.purge(Duration.ofHours(1));
+
+        // 처리한 행만 지우고, 처리 전인 행은 오래됐어도 남김
+        assertThat(deleted).isEqualTo(1);
+        assertThat(transport.poll()).extracting(ChangeEvent::entityId).containsExactly(2L);
+    }
+
+    @Test
+    public void purgeKeepsRecentRows() {
+        publish(new ChangeEvent(ChangeEvent.MEMBER, 1L, null, "other"));
+        transport.poll();
+
+        assertThat(transport.purge(Duration.ofHours(1))).isZero();
+    }
+
+    private void publish(ChangeEvent event) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            transport.publish(connection, List.of(event));
+            return null;
+        });
+    }
+}
@@ -0,0 +1,109 @@
+package study.datajpa.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.EncodableHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogReader;
+import org.HdrHistogram.HistogramLogWriter;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 엔드포인트별 HdrHistogram(마이크로초 단위)과 에러 수를 모아서 출력/저장/비교.
+ * 저장은 HdrHistogram 로그 포맷(.hlog)이라 HistogramLogAnalyzer 같은 도구로도 열 수 있음.
+ */
+public class LatencyReport {
+
+    static final String TOTAL = "total";
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final double[] PERCENTILES = {50, 95, 99, 99.9};
+
+    private final Map<String, Histogram> histograms = new LinkedHashMap<>();
+    private final Map<String, LongAdder> errors = new LinkedHashMap<>();
+
+    public LatencyReport(Iterable<String> names) {
+        for (String name : names) {
+            histograms.put(name, newHistogram());
+            errors.put(name, new LongAdder());
+        }
+        histograms.put(TOTAL, newHistogram());
+        errors.put(TOTAL, new LongAdder());
+    }
+
+    private LatencyReport(Map<String, Histogram> histograms) {
+        this.histograms.putAll(histograms);
+    }
+
+    private static Histogram newHistogram() {
+        return new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    }
+
+    public void record(String name, long latencyNanos, boolean success) {
+        long micros = Math.min(HIGHEST_TRACKABLE_MICROS, TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+        histograms.get(name).recordValue(micros);
+        histograms.get(TOTAL).recordValue(micros);
+        if (!success) {
+            errors.get(name).increment();
+            errors.get(TOTAL).increment();
+        }
+    }
+
+    public void print(PrintStream out, double elapsedSeconds) {
+        out.printf("%-12s %10s %10s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "req/s", "p50(ms)", "p95(ms)", "p99(ms)", "p999(ms)", "errors");
+        histograms.forEach((name, histogram) -> {
+            out.printf("%-12s %10d %10.1f", name, histogram.getTotalCount(), histogram.getTotalCount() / elapsedSeconds);
+            for (double percentile : PERCENTILES) {
+                out.printf(" %9.2f", histogram.getValueAtPercentile(percentile) / 1000.0);
+            }
+            out.printf(" %9d%n", errors.containsKey(name) ? errors.get(name).sum() : 0);
+        });
+    }
+
+    public void save(File file) throws FileNotFoundException {
+        try (PrintStream stream = new PrintStream(file)) {
+            HistogramLogWriter writer = new HistogramLogWriter(stream);
+            writer.outputLogFormatVersion();
+            writer.outputLegend();
+            histograms.forEach((name, histogram) -> {
+                histogram.setTag(name);
+                writer.outputIntervalHistogram(histogram);
+            });
+        }
+    }
+
+    public static LatencyReport load(File file) throws FileNotFoundException {
+        Map<String, Histogram> histograms = new LinkedHashMap<>();
+        HistogramLogReader reader = new HistogramLogReader(file);
+        EncodableHistogram encodable;
+        while ((encodable = reader.nextIntervalHistogram()) != null) {
+            Histogram histogram = (Histogram) encodable;
+            histograms.put(histogram.getTag(), histogram);
+        }
+        return new LatencyReport(histograms);
+    }
+
+    // baseline 대비 candidate의 퍼센타일 변화(%)를 출력. 음수면 빨라진 것
+    public static void compare(PrintStream out, LatencyReport baseline, LatencyReport candidate) {
+        out.printf("%-12s %8s %22s %22s %22s %22s%n", "endpoint", "", "p50(ms)", "p95(ms)", "p99(ms)", "p999(ms)");
+        baseline.histograms.forEach((name, before) -> {
+            Histogram after = candidate.histograms.get(name);
+            if (after == null) {
+                return;
+            }
+            out.printf("%-12s %8s", name, "");
+            for (double percentile : PERCENTILES) {
+                double b = before.getValueAtPercentile(percentile) / 1000.0;
+                double a = after.getValueAtPercentile(percentile) / 1000.0;
+                out.printf(" %8.2f->%7.2f(%+4.0f%%)", b, a, b == 0 ? 0 : (a - b) / b * 100);
+            }
+            out.println();
+        });
+    }
+}
@@ -0,0 +1,136 @@
+package study.datajpa.loadtest;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.DataJpaApplication;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * MemberController 엔드포인트 부하 테스트.
+ * 인메모리 H2로 앱을 띄우고 SyntheticDataLoader로 데이터를 채운 뒤, 목표 rate로 요청을 보냄.
+ *
+ * 지연 시간은 "보내기로 예정된 시각"부터 잰다 (open-loop, coordinated omission 보정).
+ * 서버가 느려져도 요청 간격을 늦추지 않기 때문에 큐잉 지연까지 퍼센타일에 잡힘.
+ *
+ * ./gradlew loadTest -Pargs="--rate=500 --duration=60 --mix=members=4,membersDto=3,member=2,member2=1 --out=build/base.hlog"
+ * ./gradlew loadTest -Pargs="--compare=build/base.hlog,build/new.hlog"
+ */
+public class LoadTestHarness {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+
+        if (options.containsKey("compare")) {
+            String[] files = options.get("compare").split(",");
+            LatencyReport.compare(System.out,
+                    LatencyReport.load(new File(files[0])), LatencyReport.load(new File(files[1])));
+            return;
+        }
+
+        int rate = Integer.parseInt(options.getOrDefault("rate", "200"));
+        int durationSeconds = Integer.parseInt(options.getOrDefault("duration", "30"));
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "5"));
+        int members = Integer.parseInt(options.getOrDefault("members", "10000"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        RequestMix mix = new RequestMix(options.getOrDefault("mix", "members=4,membersDto=3,member=2,member2=1"), members);
+
+        ConfigurableApplicationContext context = SpringApplication.run(DataJpaApplication.class,
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--logging.level.org.hibernate.SQL=warn",
+                "--decorator.datasource.p6spy.enable-logging=false",
+                "--datajpa.dataload.enabled=true",
+                "--datajpa.dataload.teams=" + Math.max(1, members / 100),
+                "--datajpa.dataload.members=" + members,
+                "--datajpa.dataload.items=0",
+                "--datajpa.dataload.seed=" + seed);
+        String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+
+        // Java 21 이상이면 Executors.newVirtualThreadPerTaskExecutor()로 바꾸면 됨 (현재 툴체인 17)
+        ExecutorService executor = Executors.newCachedThreadPool();
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(executor)
+                .build();
+        try {
+            System.out.printf("warm-up %ds at %d req/s%n", warmupSeconds, rate);
+            run(client, baseUrl, mix, rate, warmupSeconds, seed - 1);
+
+            System.out.printf("measuring %ds at %d req/s%n", durationSeconds, rate);
+            long start = System.nanoTime();
+            LatencyReport report = run(client, baseUrl, mix, rate, durationSeconds, seed);
+            double elapsed = (System.nanoTime() - start) / 1e9;
+
+            report.print(System.out, elapsed);
+            if (options.containsKey("out")) {
+                report.save(new File(options.get("out")));
+                System.out.println("histograms written to " + options.get("out"));
+            }
+        } finally {
+            executor.shutdownNow();
+            context.close();
+        }
+    }
+
+    private static LatencyReport run(HttpClient client, String baseUrl,
+                                     RequestMix mix, int rate, int seconds, long seed) throws InterruptedException {
+        LatencyReport report = new LatencyReport(mix.names());
+        SplittableRandom random = new SplittableRandom(seed);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long total = (long) rate * seconds;
+        long start = System.nanoTime();
+        AtomicLong completed = new AtomicLong();
+
+        for (long i = 0; i < total; i++) {
+            long intended = start + i * intervalNanos;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            RequestMix.Request request = mix.next(random);
+            HttpRequest httpRequest = HttpRequest.newBuilder(URI.create(baseUrl + request.path()))
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build();
+            client.sendAsync(httpRequest, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        report.record(request.name(), System.nanoTime() - intended,
+                                error == null && response.statusCode() < 400);
+                        completed.incrementAndGet();
+                    });
+        }
+
+        // 마지막 요청들이 끝날 때까지 대기 (최대 30초)
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (completed.get() < total && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        return report;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                int eq = arg.indexOf('=');
+                options.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        return options;
+    }
+}
@@ -0,0 +1,67 @@
+package study.datajpa.loadtest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * "members=4,membersDto=3,member=2,member2=1" 형태의 가중치로 요청을 섞어서 뽑아줌.
+ */
+public class RequestMix {
+
+    private static final Map<String, String> TEMPLATES = new LinkedHashMap<>();
+
+    static {
+        TEMPLATES.put("members", "/members?page=%d&size=5");
+        TEMPLATES.put("membersDto", "/membersDto?page=%d&size=5");
+        TEMPLATES.put("member", "/members/%d");
+        TEMPLATES.put("member2", "/members2/%d");
+    }
+
+    private final List<String> names = new ArrayList<>();
+    private final int[] cumulativeWeights;
+    private final int totalWeight;
+    private final int maxMemberId;
+
+    public RequestMix(String spec, int maxMemberId) {
+        List<Integer> weights = new ArrayList<>();
+        for (String entry : spec.split(",")) {
+            String[] pair = entry.trim().split("=");
+            if (!TEMPLATES.containsKey(pair[0])) {
+                throw new IllegalArgumentException("unknown endpoint: " + pair[0] + " (allowed " + TEMPLATES.keySet() + ")");
+            }
+            names.add(pair[0]);
+            weights.add(pair.length > 1 ? Integer.parseInt(pair[1]) : 1);
+        }
+        this.cumulativeWeights = new int[weights.size()];
+        int sum = 0;
+        for (int i = 0; i < weights.size(); i++) {
+            sum += weights.get(i);
+            cumulativeWeights[i] = sum;
+        }
+        this.totalWeight = sum;
+        this.maxMemberId = Math.max(1, maxMemberId);
+    }
+
+    public List<String> names() {
+        return names;
+    }
+
+    public Request next(SplittableRandom random) {
+        int pick = random.nextInt(totalWeight);
+        int index = 0;
+        while (cumulativeWeights[index] <= pick) {
+            index++;
+        }
+        String name = names.get(index);
+        int argument = name.startsWith("members")
+                ? random.nextInt(Math.max(1, maxMemberId / 5)) // 페이지 번호
+                : 1 + random.nextInt(maxMemberId);             // 회원 id
+        return new Request(name, TEMPLATES.get(name).formatted(argument));
+    }
+
+    public record Request(String name, String path) {
+    }
+}
@@ -0,0 +1,53 @@
+package study.datajpa.overload;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    @Test
+    public void rejectBeyondLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter((limit, rtt, inFlight, dropped) -> limit, 2);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse(); // 기다리지 않고 바로 거절
+
+        limiter.release(FAST, false);
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.inFlight()).isEqualTo(2);
+    }
+
+    @Test
+    public void aimdGrowsUnderLoadAndBacksOffOnTimeout() {
+        AimdLimit aimd = new AimdLimit(2, 100, TimeUnit.SECONDS.toNanos(1), 0.5);
+
+        assertThat(aimd.update(10, FAST, 8, false)).isEqualTo(11);
+        assertThat(aimd.update(10, FAST, 2, false)).isEqualTo(10); // 한도를 안 쓰고 있으면 그대로
+        assertThat(aimd.update(10, FAST, 8, true)).isEqualTo(5);
+        assertThat(aimd.update(3, TimeUnit.SECONDS.toNanos(2), 3, false)).isEqualTo(2); // 최소값 아래로는 안 내려감
+    }
+
+    @Test
+    public void gradientShrinksWhenLatencyRises() {
+        GradientLimit gradient = new GradientLimit(2, 200);
+        int limit = 20;
+        for (int i = 0; i < 100; i++) {
+            limit = gradient.update(limit, FAST, limit, false);
+        }
+        int healthy = limit;
+        assertThat(healthy).isGreaterThan(20);
+
+        // DB가 느려짐
+        for (int i = 0; i < 20; i++) {
+            limit = gradient.update(limit, SLOW, limit, false);
+        }
+        assertThat(limit).isLessThan(healthy / 2);
+    }
+}
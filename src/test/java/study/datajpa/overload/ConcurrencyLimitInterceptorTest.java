@@ -0,0 +1,112 @@
+package study.datajpa.overload;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ConcurrencyLimitInterceptorTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BlockingController controller = new BlockingController();
+    private final MockMvc mvc = MockMvcBuilders.standaloneSetup(controller)
+            .addInterceptors(new ConcurrencyLimitInterceptor(properties(), meterRegistry))
+            .build();
+
+    @Test
+    public void rejectWith503AndRetryAfterBeyondLimit() throws Exception {
+        CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() -> statusOf("/slow"));
+        assertThat(controller.entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // 한도 1개를 첫 요청이 쓰고 있음 -> 기다리지 않고 바로 503
+        mvc.perform(get("/slow"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+        assertThat(meterRegistry.get("datajpa.overload.in-flight").tag("class", "list").gauge().value()).isEqualTo(1);
+
+        controller.release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(200);
+        assertThat(calls("rejected")).isEqualTo(1);
+        assertThat(calls("accepted")).isEqualTo(1);
+        assertThat(meterRegistry.get("datajpa.overload.in-flight").tag("class", "list").gauge().value()).isZero();
+    }
+
+    @Test
+    public void queryTimeoutCountsAsDrop() {
+        assertThatThrownBy(() -> mvc.perform(get("/timeout")))
+                .hasRootCauseInstanceOf(QueryTimeoutException.class);
+
+        assertThat(calls("dropped")).isEqualTo(1);
+        assertThat(meterRegistry.get("datajpa.overload.in-flight").tag("class", "list").gauge().value()).isZero();
+    }
+
+    @Test
+    public void unmappedHandlerIsNotLimited() throws Exception {
+        mvc.perform(get("/free")).andExpect(status().isOk());
+
+        assertThat(meterRegistry.find("datajpa.overload.calls").counters()).isEmpty();
+    }
+
+    private double calls(String result) {
+        return meterRegistry.get("datajpa.overload.calls").tags("class", "list", "result", result).counter().count();
+    }
+
+    private int statusOf(String uri) {
+        try {
+            return mvc.perform(get(uri)).andReturn().getResponse().getStatus();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static OverloadProperties properties() {
+        OverloadProperties properties = new OverloadProperties();
+        properties.setAlgorithm(OverloadProperties.Algorithm.AIMD);
+        properties.setInitialLimit(1);
+        properties.setMinLimit(1);
+        properties.setMaxLimit(1);
+        properties.setEndpointClasses(Map.of(
+                "list", List.of("BlockingController#slow", "BlockingController#timeout")));
+        return properties;
+    }
+
+    @RestController
+    static class BlockingController {
+
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @GetMapping("/slow")
+        public String slow() throws InterruptedException {
+            entered.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "ok";
+        }
+
+        @GetMapping("/timeout")
+        public String timeout() {
+            throw new QueryTimeoutException("slow query");
+        }
+
+        @GetMapping("/free")
+        public String free() {
+            return "ok";
+        }
+    }
+}
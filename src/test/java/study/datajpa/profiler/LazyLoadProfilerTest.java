@@ -0,0 +1,95 @@
+package study.datajpa.profiler;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "datajpa.profiler.enabled=true",
+        "datajpa.profiler.auto-batch=true",
+        "datajpa.profiler.min-calls=1",
+        "datajpa.profiler.threshold=2",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+@Transactional
+class LazyLoadProfilerTest {
+
+    @Autowired LazyLoadProfiler profiler;
+    @Autowired MemberRepository memberRepository;
+    @Autowired TeamRepository teamRepository;
+    @Autowired EntityManager em;
+    @Autowired EntityManagerFactory emf;
+
+    @Test
+    public void reportNPlusOneByCallSite() {
+        //given
+        for (int i = 0; i < 3; i++) {
+            Team team = teamRepository.save(new Team("profiledTeam" + i));
+            memberRepository.save(new Member("profiled" + i, 10, team));
+        }
+        em.flush();
+        em.clear();
+        profiler.reset();
+
+        //when - 회원만 조회하고 팀은 getter로 하나씩 초기화 (N+1)
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<Member> members = loadMembersAndTeams();
+        long firstQueries = statistics.getPrepareStatementCount();
+
+        //then
+        LazyLoadReport.Site site = profiler.report().sites().stream()
+                .filter(s -> s.callSite().startsWith("MemberRepository.findMemberCustom <- LazyLoadProfilerTest.loadMembersAndTeams"))
+                .findFirst()
+                .orElseThrow();
+        assertThat(site.calls()).isEqualTo(1);
+        assertThat(site.loaded().get("Member")).isEqualTo(members.size());
+        assertThat(site.lazyInitialized().get("Member.team")).isGreaterThanOrEqualTo(3);
+        assertThat(site.recommendation()).contains("@EntityGraph(attributePaths = \"team\")");
+        // 기준을 넘었으므로 다음 호출부터 배치 페치
+        assertThat(site.batchFetchApplied()).isTrue();
+
+        // 같은 호출 지점을 다시 호출 -> 팀을 IN 쿼리로 묶어서 가져오므로 쿼리 수가 줄어듦
+        em.clear();
+        statistics.clear();
+        loadMembersAndTeams();
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(firstQueries);
+    }
+
+    @Test
+    public void clearDropsSessionTracking() {
+        Team team = teamRepository.save(new Team("clearedTeam"));
+        memberRepository.save(new Member("cleared", 10, team));
+        em.flush();
+        em.clear();
+
+        memberRepository.findMemberCustom();
+        assertThat(profiler.trackedEntries()).isPositive();
+
+        em.clear();
+        assertThat(profiler.trackedEntries()).isZero();
+    }
+
+    // 호출 지점(호출한 줄)이 같아야 하므로 한 곳에서만 호출
+    private List<Member> loadMembersAndTeams() {
+        List<Member> members = memberRepository.findMemberCustom();
+        for (Member member : members) {
+            if (member.getTeam() != null) {
+                member.getTeam().getName();
+            }
+        }
+        return members;
+    }
+}
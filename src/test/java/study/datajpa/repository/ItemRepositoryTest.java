@@ -3,8 +3,11 @@ package study.datajpa.repository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.entity.Item;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 @SpringBootTest
 public class ItemRepositoryTest {
 
@@ -19,4 +22,18 @@ public class ItemRepositoryTest {
         //데이터에 대한 "변경 감지 기능"을 반드시 써야 함!!
         //데이터에 대한 저장은 "persist"를 써야 함!!
     }
+
+    @Test
+    @Transactional
+    public void saveWithGeneratedId() {
+        Item first = Item.create();
+        assertThat(first.isNew()).isTrue();
+
+        itemRepository.save(first); // id가 없어도 isNew() == true -> persist, 직전에 id가 채워짐
+        Item second = itemRepository.save(Item.create());
+
+        assertThat(first.getId()).hasSize(13);
+        assertThat(first.isNew()).isFalse();
+        assertThat(second.getId()).isGreaterThan(first.getId()); // 생성 순서대로 정렬됨
+    }
 }
@@ -3,21 +3,27 @@ package study.datajpa.repository;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import org.assertj.core.api.Assertions;
+import org.hibernate.Session;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.*;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.annotation.Rollback;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
 import study.datajpa.entity.Team;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @SpringBootTest
 @Transactional
@@ -26,6 +32,7 @@ class MemberRepositoryTest {
 
     @Autowired MemberRepository memberRepository;
     @Autowired TeamRepository teamRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
 
 
     @PersistenceContext
@@ -324,6 +331,75 @@ class MemberRepositoryTest {
         List<Member> result = memberRepository.findMemberCustom();
     }
 
+    @Test
+    public void forEachChunk() {
+        //given
+        for (int i = 0; i < 25; i++) {
+            memberRepository.save(new Member("chunk" + i, i));
+        }
+        em.flush();
+        long total = memberRepository.count();
+
+        //when
+        List<Integer> chunkSizes = new ArrayList<>();
+        memberRepository.forEachChunk(10, chunk -> {
+            chunkSizes.add(chunk.size());
+            assertThat(em.contains(chunk.get(0))).isTrue();
+        });
+
+        //then
+        // 청크마다 clear 되므로 끝나고 나면 영속성 컨텍스트가 비어 있음
+        assertThat(chunkSizes.stream().mapToInt(Integer::intValue).sum()).isEqualTo(total);
+        assertThat(chunkSizes).allMatch(size -> size <= 10);
+        assertThat(em.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
+    @Test
+    public void forEachChunkRejectsNonPositiveChunkSize() {
+        assertThatThrownBy(() -> memberRepository.forEachChunk(0, chunk -> {}))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> memberRepository.forEachChunk(-1, true, chunk -> {}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // 청크마다 REQUIRES_NEW로 커밋 -> 바깥 테스트 트랜잭션 없이 실행
+    public void forEachChunkCommitting() {
+        //given
+        List<Member> seeded = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            seeded.add(new Member("commitChunk" + i, i));
+        }
+        memberRepository.saveAll(seeded);
+        List<Long> expectedIds = jdbcTemplate.queryForList("select member_id from member order by member_id", Long.class);
+
+        try {
+            //when
+            // 청크마다 표시용 팀을 하나 저장하고, 다음 청크에서 별도 커넥션(JdbcTemplate)으로 앞 청크 것이 보이는지 확인
+            List<Long> visitedIds = new ArrayList<>();
+            List<Long> visibleMarkers = new ArrayList<>();
+            AtomicInteger chunkIndex = new AtomicInteger();
+            memberRepository.forEachChunk(10, true, chunk -> {
+                int index = chunkIndex.getAndIncrement();
+                if (index > 0) {
+                    visibleMarkers.add(jdbcTemplate.queryForObject(
+                            "select count(*) from team where name = ?", Long.class, "commitChunkMarker" + (index - 1)));
+                }
+                chunk.forEach(member -> visitedIds.add(member.getId()));
+                em.persist(new Team("commitChunkMarker" + index));
+            });
+
+            //then
+            // 키셋 페이징이라 빠지거나 겹치는 행 없이 id 순서대로 한 번씩
+            assertThat(visitedIds).containsExactlyElementsOf(expectedIds);
+            assertThat(chunkIndex.get()).isGreaterThan(2);
+            assertThat(visibleMarkers).hasSize(chunkIndex.get() - 1).containsOnly(1L);
+        } finally {
+            jdbcTemplate.update("delete from team where name like 'commitChunkMarker%'");
+            jdbcTemplate.update("delete from member where username like 'commitChunk%'");
+        }
+    }
+
     @Test
     public void queryByExample() { //inner join만 가능하고 Outer join이 안됨! 실무에서 잘 못 쓰는 이유.
         //given
@@ -0,0 +1,93 @@
+package study.datajpa.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 커넥션 2개짜리 풀: 요청 스레드가 커넥션을 쥔 채 count를 기다리면 금방 멈춤
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:parallelpage;DB_CLOSE_DELAY=-1",
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "spring.datasource.hikari.connection-timeout=5000"
+})
+class ParallelPageExecutorTest {
+
+    @Autowired ParallelPageExecutor parallelPageExecutor;
+    @Autowired MemberRepository memberRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    @Test
+    public void firstPageShorterThanSizeDiscardsCount() {
+        Page<String> page = parallelPageExecutor.getPage(PageRequest.of(0, 10),
+                () -> List.of("a", "b", "c"), () -> 42);
+
+        // count가 먼저 시작됐더라도 결과는 버리고 content 크기로 결정
+        assertThat(page.getTotalElements()).isEqualTo(3);
+    }
+
+    @Test
+    public void firstPageOverlapsContentAndCount() throws Exception {
+        CountDownLatch countStarted = new CountDownLatch(1);
+
+        // content가 끝나기 전에 count가 다른 스레드에서 시작되어야 함
+        Page<String> page = parallelPageExecutor.getPage(PageRequest.of(0, 2),
+                () -> {
+                    try {
+                        assertThat(countStarted.await(5, TimeUnit.SECONDS)).isTrue();
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    return List.of("a", "b");
+                },
+                () -> {
+                    countStarted.countDown();
+                    return 42;
+                });
+
+        assertThat(page.getTotalElements()).isEqualTo(42);
+    }
+
+    @Test
+    public void fullFirstPageRunsCount() {
+        Page<String> page = parallelPageExecutor.getPage(PageRequest.of(0, 2),
+                () -> List.of("a", "b"), () -> 42);
+
+        assertThat(page.getTotalElements()).isEqualTo(42);
+    }
+
+    @Test
+    public void concurrentPagesDoNotExhaustPool() throws Exception {
+        if (memberRepository.count() < 10) {
+            memberRepository.saveAll(IntStream.range(0, 10).mapToObj(i -> new Member("parallel" + i, i)).toList());
+        }
+        long total = memberRepository.count();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        // 각 요청이 커넥션 하나를 쥔 채로 첫 페이지/다음 페이지(둘 다 count 필요)를 조회
+        List<CompletableFuture<Page<Member>>> requests = IntStream.range(0, 8)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> readOnly.execute(status ->
+                        memberRepository.findAllParallel(MemberFetchPlan.NONE, PageRequest.of(i % 2, 2, Sort.by("id"))))))
+                .toList();
+
+        for (CompletableFuture<Page<Member>> request : requests) {
+            Page<Member> page = request.get(30, TimeUnit.SECONDS);
+            assertThat(page.getContent()).hasSize(2);
+            assertThat(page.getTotalElements()).isEqualTo(total);
+        }
+    }
+}
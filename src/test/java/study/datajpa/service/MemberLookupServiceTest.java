@@ -0,0 +1,115 @@
+package study.datajpa.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:singleflight;DB_CLOSE_DELAY=-1")
+class MemberLookupServiceTest {
+
+    @Autowired MemberLookupService memberLookupService;
+    @Autowired MemberRepository memberRepository;
+    @Autowired TeamRepository teamRepository;
+    @Autowired MeterRegistry meterRegistry;
+    @SpyBean MemberQueryService memberQueryService;
+
+    @Test
+    public void concurrentLookupsShareOneQueryAndGetOwnCopies() throws Exception {
+        Team team = teamRepository.save(new Team("hotTeam"));
+        memberRepository.save(new Member("hot", 10, team));
+
+        // leader가 조회 중인 동안 나머지 호출이 모두 들어오도록 잡아둠
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            entered.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return invocation.callRealMethod();
+        }).when(memberQueryService).findByUsername(anyString());
+        double sharedBefore = shared();
+
+        ExecutorService executor = Executors.newFixedThreadPool(10);
+        List<Future<List<MemberDto>>> results = new ArrayList<>();
+        results.add(executor.submit(() -> memberLookupService.findByUsername("hot")));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 0; i < 9; i++) {
+            results.add(executor.submit(() -> memberLookupService.findByUsername("hot")));
+        }
+        Thread.sleep(200); // follower들이 leader 결과를 기다리기 시작할 시간
+        release.countDown();
+
+        List<List<MemberDto>> lists = new ArrayList<>();
+        for (Future<List<MemberDto>> result : results) {
+            lists.add(result.get(5, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        verify(memberQueryService, times(1)).findByUsername("hot");
+        assertThat(shared() - sharedBefore).isEqualTo(9);
+        assertThat(lists).allSatisfy(list -> assertThat(list).singleElement()
+                .extracting(MemberDto::getTeamName).isEqualTo("hotTeam"));
+        // 같은 DTO 인스턴스를 나눠주지 않음
+        lists.get(0).get(0).setUsername("changed");
+        assertThat(lists.get(1).get(0).getUsername()).isEqualTo("hot");
+    }
+
+    @Test
+    public void concurrentSingleLookupsShareOneQuery() throws Exception {
+        memberRepository.save(new Member("hotOne", 20));
+
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            entered.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return invocation.callRealMethod();
+        }).when(memberQueryService).findOneByUsername(anyString());
+
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        List<Future<Optional<MemberDto>>> results = new ArrayList<>();
+        results.add(executor.submit(() -> memberLookupService.findOneByUsername("hotOne")));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 0; i < 4; i++) {
+            results.add(executor.submit(() -> memberLookupService.findOneByUsername("hotOne")));
+        }
+        Thread.sleep(200);
+        release.countDown();
+
+        List<MemberDto> dtos = new ArrayList<>();
+        for (Future<Optional<MemberDto>> result : results) {
+            dtos.add(result.get(5, TimeUnit.SECONDS).orElseThrow());
+        }
+        executor.shutdown();
+
+        verify(memberQueryService, times(1)).findOneByUsername("hotOne");
+        assertThat(dtos).extracting(MemberDto::getUsername).containsOnly("hotOne");
+        assertThat(dtos.get(0)).isNotSameAs(dtos.get(1));
+    }
+
+    private double shared() {
+        return meterRegistry.find("datajpa.singleflight.calls").tags("method", "findByUsername", "result", "shared")
+                .counters().stream().mapToDouble(c -> c.count()).sum();
+    }
+}
@@ -0,0 +1,146 @@
+package study.datajpa.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.SliceResponse;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberFetchPlan;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class MemberQueryServiceTest {
+
+    @Autowired MemberQueryService memberQueryService;
+    @Autowired MemberRepository memberRepository;
+    @Autowired TeamRepository teamRepository;
+    @Autowired EntityManager em;
+    @Autowired EntityManagerFactory emf;
+    @Autowired MeterRegistry meterRegistry;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    @Test
+    public void findMembersReturnsDto() {
+        //given
+        Team teamA = teamRepository.save(new Team("teamA"));
+        Member member = memberRepository.save(new Member("member1", 10, teamA));
+        em.flush();
+        em.clear();
+
+        //when
+        MemberDto findMember = memberQueryService.findMember(member.getId()).get();
+        Page<MemberDto> page = memberQueryService.findMembers(PageRequest.of(0, 5, Sort.by("username")));
+
+        //then
+        assertThat(findMember.getUsername()).isEqualTo("member1");
+        assertThat(findMember.getTeamName()).isEqualTo("teamA");
+        assertThat(page.getContent()).isNotEmpty();
+    }
+
+    @Test
+    public void feedWithCursor() {
+        //given
+        Member first = memberRepository.save(new Member("feed1", 10));
+        memberRepository.save(new Member("feed2", 20));
+        memberRepository.save(new Member("feed3", 30));
+        em.flush();
+
+        //when
+        SliceResponse<MemberDto> page1 = memberQueryService.findFeed(first.getId() - 1, 2);
+        SliceResponse<MemberDto> page2 = memberQueryService.findFeed(page1.getNextCursor(), 2);
+
+        //then
+        assertThat(page1.getItems()).extracting("username").containsExactly("feed1", "feed2");
+        assertThat(page1.isHasNext()).isTrue();
+        assertThat(page2.getItems()).extracting("username").containsExactly("feed3");
+        assertThat(page2.isHasNext()).isFalse();
+        assertThat(page2.getNextCursor()).isNull();
+    }
+
+    @Test
+    public void fetchPlan() {
+        //given
+        Team teamA = teamRepository.save(new Team("teamA"));
+        Member member = memberRepository.save(new Member("expand-member", 10, teamA));
+        em.flush();
+        em.clear();
+        PageRequest pageRequest = PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "id"));
+
+        //when
+        Page<MemberDto> basic = memberQueryService.findMembers(MemberFetchPlan.NONE, pageRequest);
+        Page<MemberDto> expanded = memberQueryService.findMembers(MemberFetchPlan.of(Set.of("team")), pageRequest);
+
+        //then
+        assertThat(basic.getContent().get(0).getId()).isEqualTo(member.getId());
+        assertThat(basic.getContent().get(0).getTeamName()).isNull();
+        assertThat(expanded.getContent().get(0).getTeamName()).isEqualTo("teamA");
+        assertThatThrownBy(() -> MemberFetchPlan.of(Set.of("team.members")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // 테스트 트랜잭션이 커넥션을 쥐고 있으면 서비스의 커넥션 반환을 볼 수 없으므로 트랜잭션 없이 실행
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void listRunsWithoutNPlusOneAndReleasesConnection() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        List<Member> saved = tx.execute(status -> IntStream.range(0, 3)
+                .mapToObj(i -> memberRepository.save(new Member("noNPlusOne" + i, 10,
+                        teamRepository.save(new Team("noNPlusOneTeam" + i)))))
+                .toList());
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        PageRequest latest = PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "id"));
+        try {
+            //when
+            long holdsBefore = connectionHolds();
+            statistics.clear();
+            Page<MemberDto> expanded = memberQueryService.findMembers(MemberFetchPlan.of(Set.of("team")), latest);
+            long expandedQueries = statistics.getPrepareStatementCount();
+            statistics.clear();
+            Page<MemberDto> basic = memberQueryService.findMembers(MemberFetchPlan.NONE, latest);
+            long basicQueries = statistics.getPrepareStatementCount();
+
+            //then 팀 수와 상관없이 content + count 쿼리뿐
+            assertThat(expanded.getContent()).extracting(MemberDto::getTeamName)
+                    .containsExactly("noNPlusOneTeam2", "noNPlusOneTeam1", "noNPlusOneTeam0");
+            assertThat(expandedQueries).isLessThanOrEqualTo(2);
+            assertThat(basic.getContent()).extracting(MemberDto::getTeamName).containsOnlyNulls();
+            assertThat(basicQueries).isLessThanOrEqualTo(2);
+            // 호출마다 서비스 트랜잭션이 끝나면서 커넥션을 반환하고 hold 시간이 기록됨
+            assertThat(connectionHolds() - holdsBefore).isGreaterThanOrEqualTo(2);
+        } finally {
+            tx.executeWithoutResult(status -> saved.forEach(member -> {
+                Member found = memberRepository.findById(member.getId()).orElseThrow();
+                memberRepository.delete(found);
+                teamRepository.deleteById(member.getTeam().getId());
+            }));
+        }
+    }
+
+    private long connectionHolds() {
+        return meterRegistry.find("datajpa.connection.hold").timers().stream().mapToLong(Timer::count).sum();
+    }
+}
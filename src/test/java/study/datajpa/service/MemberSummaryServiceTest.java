@@ -0,0 +1,32 @@
+package study.datajpa.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.dto.MemberSummaryDto;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 비동기 쿼리는 다른 스레드/트랜잭션에서 돌기 때문에 테스트 트랜잭션(@Transactional)을 걸지 않음
+@SpringBootTest
+class MemberSummaryServiceTest {
+
+    @Autowired MemberSummaryService memberSummaryService;
+    @Autowired MemberRepository memberRepository;
+    @Autowired TeamRepository teamRepository;
+
+    @Test
+    public void asyncQueriesRunOnQueryExecutor() throws Exception {
+        CompletableFuture<Long> count = teamRepository.countAsync();
+        assertThat(count.get()).isEqualTo(teamRepository.count());
+
+        MemberSummaryDto summary = memberSummaryService.summary(10);
+        assertThat(summary.getTeamCount()).isEqualTo(teamRepository.count());
+        assertThat(summary.getMembers())
+                .hasSize(Math.min(MemberSummaryService.MEMBER_LIMIT, memberRepository.findMemberDto().size()));
+    }
+}
@@ -0,0 +1,57 @@
+package study.datajpa.sessionmetrics;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "datajpa.session-metrics.enabled=true")
+class SessionMetricsRecorderTest {
+
+    @Autowired SessionMetricsRecorder recorder;
+    @Autowired MemberRepository memberRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired EntityManager em;
+
+    @Test
+    public void captureAutoFlushAndContextHits() {
+        recorder.beginRequest();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Member member = memberRepository.save(new Member("sessionMetrics", 10));
+            // 쓰기 트랜잭션에서 조회 쿼리 -> 쿼리 전에 자동 flush
+            memberRepository.findByUsername("sessionMetrics");
+            // 더 이상 바뀐 게 없음 -> flush 검사만 하고 flush는 안 함
+            memberRepository.findByUsername("sessionMetrics");
+            // 이미 영속성 컨텍스트에 있음
+            em.find(Member.class, member.getId());
+            status.setRollbackOnly();
+        });
+        SessionStats stats = recorder.endRequest();
+
+        assertThat(stats.transactions()).isEqualTo(1);
+        assertThat(stats.autoFlushes()).isEqualTo(1);
+        assertThat(stats.managedEntities()).isGreaterThanOrEqualTo(1);
+        assertThat(stats.contextHits()).isGreaterThanOrEqualTo(1);
+        assertThat(stats.toHeaderValue()).startsWith("tx=1;");
+    }
+
+    @Test
+    public void readOnlyQueriesDoNotCountAsAutoFlush() {
+        recorder.beginRequest();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            memberRepository.findByUsername("nobody");
+            memberRepository.findByUsername("nobody");
+            status.setRollbackOnly();
+        });
+        SessionStats stats = recorder.endRequest();
+
+        assertThat(stats.autoFlushes()).isZero();
+        assertThat(stats.managedCollections()).isZero();
+    }
+}
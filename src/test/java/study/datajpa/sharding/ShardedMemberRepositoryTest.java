@@ -0,0 +1,97 @@
+package study.datajpa.sharding;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 인메모리 H2 3개를 샤드로 사용
+class ShardedMemberRepositoryTest {
+
+    ExecutorService executor;
+    List<DataSource> shards;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(3);
+        String prefix = UUID.randomUUID().toString();
+        shards = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            shards.add(new DriverManagerDataSource("jdbc:h2:mem:" + prefix + "-shard" + i + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void routeByTeam() {
+        ShardedMemberRepository repository = repository(new TeamShardRouter(3));
+        ShardedMember member = repository.save("member1", 10, 4L);
+
+        assertThat(repository.findById(member.id())).contains(member);
+        assertThat(repository.findByUsername("member1")).containsExactly(member);
+        assertThat(repository.findById(-1L)).isEmpty();
+    }
+
+    @Test
+    public void directoryEntryWithoutShardRowIsIgnored() {
+        ShardedMemberRepository repository = repository(new TeamShardRouter(3));
+        ShardedMember saved = repository.save("member1", 10, 4L);
+        // save가 directory만 쓰고 죽은 상황
+        new JdbcTemplate(shards.get(0)).update(
+                "insert into member_shard_index (member_id, username, shard) values (?, ?, ?)", -7L, "member1", 2);
+
+        assertThat(repository.findById(-7L)).isEmpty();
+        assertThat(repository.findByUsername("member1")).containsExactly(saved);
+    }
+
+    @Test
+    public void scatterGatherPaging() {
+        ShardedMemberRepository repository = repository(new ConsistentHashShardRouter(3));
+        List<ShardedMember> saved = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            saved.add(repository.save("member" + i, i % 5, (long) (i % 7)));
+        }
+
+        //when
+        Page<ShardedMember> page = repository.findAll(PageRequest.of(2, 7, Sort.by(Sort.Direction.DESC, "username")));
+        Page<ShardedMember> byAge = repository.findByAge(3, PageRequest.of(1, 4, Sort.by("username")));
+
+        //then
+        List<ShardedMember> expected = saved.stream()
+                .sorted(Comparator.comparing(ShardedMember::username).reversed())
+                .skip(14).limit(7).toList();
+        assertThat(page.getContent()).isEqualTo(expected);
+        assertThat(page.getTotalElements()).isEqualTo(50);
+
+        List<ShardedMember> expectedByAge = saved.stream()
+                .filter(m -> m.age() == 3)
+                .sorted(Comparator.comparing(ShardedMember::username))
+                .skip(4).limit(4).toList();
+        assertThat(byAge.getContent()).isEqualTo(expectedByAge);
+        assertThat(byAge.getTotalElements()).isEqualTo(10);
+    }
+
+    private ShardedMemberRepository repository(ShardRouter router) {
+        ShardedMemberRepository repository = new ShardedMemberRepository(shards, shards.get(0), router, executor);
+        repository.initSchema();
+        return repository;
+    }
+}
@@ -0,0 +1,33 @@
+package study.datajpa.sharding;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ShardingConfigTest {
+
+    @Test
+    public void destroyClosesShardAndDirectoryPools() {
+        String prefix = UUID.randomUUID().toString();
+        ShardingProperties properties = new ShardingProperties();
+        properties.setUrls(List.of(
+                "jdbc:h2:mem:" + prefix + "-shard0;DB_CLOSE_DELAY=-1",
+                "jdbc:h2:mem:" + prefix + "-shard1;DB_CLOSE_DELAY=-1"));
+        properties.setDirectoryUrl("jdbc:h2:mem:" + prefix + "-directory;DB_CLOSE_DELAY=-1");
+
+        ShardingConfig config = new ShardingConfig();
+        ShardedMemberRepository repository = config.shardedMemberRepository(properties);
+        ShardedMember member = repository.save("member1", 10, 1L);
+        assertThat(repository.findByUsername("member1")).containsExactly(member);
+
+        //when
+        config.destroy();
+
+        //then 풀이 닫혀서 더 이상 커넥션을 못 얻음
+        assertThatThrownBy(() -> repository.findByUsername("member1")).isInstanceOf(Exception.class);
+    }
+}
@@ -0,0 +1,66 @@
+package study.datajpa.singleflight;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    @Test
+    public void concurrentCallsShareOneExecution() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(0);
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(10);
+
+        List<Future<SingleFlight.Result>> results = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            results.add(executor.submit(() -> {
+                try {
+                    return singleFlight.execute("member1", () -> {
+                        executions.incrementAndGet();
+                        release.await(); // 나머지 호출이 다 들어올 때까지 쿼리가 안 끝난 상태
+                        return "result";
+                    });
+                } catch (Throwable e) {
+                    throw new RuntimeException(e);
+                }
+            }));
+        }
+        while (singleFlight.inFlightCount() == 0) {
+            Thread.sleep(1);
+        }
+        Thread.sleep(100);
+        release.countDown();
+
+        long shared = 0;
+        for (Future<SingleFlight.Result> result : results) {
+            assertThat(result.get().value()).isEqualTo("result");
+            shared += result.get().shared() ? 1 : 0;
+        }
+        executor.shutdown();
+
+        assertThat(executions.get() + shared).isEqualTo(10);
+        assertThat(executions.get()).isLessThan(10);
+        assertThat(singleFlight.inFlightCount()).isZero();
+    }
+
+    @Test
+    public void failurePropagatesAndIsNotCached() {
+        SingleFlight singleFlight = new SingleFlight(1_000);
+
+        assertThatThrownBy(() -> singleFlight.execute("key", () -> {
+            throw new IllegalStateException("db down");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(singleFlight.inFlightCount()).isZero();
+    }
+}
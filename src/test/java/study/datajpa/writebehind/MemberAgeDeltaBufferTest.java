@@ -0,0 +1,89 @@
+package study.datajpa.writebehind;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.time.LocalDateTime;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 스케줄 flush가 테스트 도중에 끼어들지 않도록 주기를 길게
+@SpringBootTest(properties = {
+        "datajpa.write-behind.enabled=true",
+        "datajpa.write-behind.flush-interval=3600000"
+})
+@Transactional
+class MemberAgeDeltaBufferTest {
+
+    @Autowired MemberAgeDeltaBuffer buffer;
+    @Autowired MemberRepository memberRepository;
+    @Autowired EntityManager em;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void coalesceIncrements() {
+        //given
+        Member member = memberRepository.save(new Member("hot", 10));
+        em.flush();
+        long updatesBefore = buffer.updateCount();
+
+        //when
+        IntStream.range(0, 100).parallel().forEach(i -> buffer.increment(member.getId(), 1));
+
+        //then
+        // flush 전에도 읽기에는 반영되어 보임
+        assertThat(buffer.currentAge(member)).isEqualTo(110);
+
+        buffer.flush();
+        em.clear();
+        assertThat(memberRepository.findById(member.getId()).get().getAge()).isEqualTo(110);
+        assertThat(buffer.pendingDelta(member.getId())).isZero();
+        // 증가 100번 -> UPDATE 1번
+        assertThat(buffer.updateCount() - updatesBefore).isEqualTo(1);
+    }
+
+    @Test
+    public void flushTouchesLastModifiedDate() {
+        Member member = memberRepository.save(new Member("touched", 10));
+        em.flush();
+        LocalDateTime old = LocalDateTime.of(2000, 1, 1, 0, 0);
+        jdbcTemplate.update("update member set last_modified_date = ? where member_id = ?", old, member.getId());
+
+        buffer.increment(member.getId(), 1);
+        buffer.flush();
+
+        // 증가만 받는 회원도 "최근에 바뀐 회원"으로 보여야 아카이빙되지 않음
+        LocalDateTime modified = jdbcTemplate.queryForObject(
+                "select last_modified_date from member where member_id = ?", LocalDateTime.class, member.getId());
+        assertThat(modified).isAfter(old);
+    }
+
+    @Test
+    public void missingMemberDeltaIsDropped() {
+        Member member = memberRepository.save(new Member("present", 10));
+        em.flush();
+        long missingId = member.getId() + 1_000_000;
+        long droppedBefore = buffer.droppedCount();
+
+        buffer.increment(missingId, 5);
+        buffer.increment(member.getId(), 1);
+        buffer.flush();
+
+        // 없는 회원 증가분은 한 번 실패하면 버림 -> 다음 flush에 다시 나가지 않음
+        assertThat(buffer.pendingDelta(missingId)).isZero();
+        assertThat(buffer.pendingDelta(member.getId())).isZero();
+        assertThat(buffer.droppedCount() - droppedBefore).isEqualTo(1);
+
+        long updatesBefore = buffer.updateCount();
+        buffer.flush();
+        assertThat(buffer.updateCount()).isEqualTo(updatesBefore);
+        assertThat(buffer.droppedCount() - droppedBefore).isEqualTo(1);
+    }
+}